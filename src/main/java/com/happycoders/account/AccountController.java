@@ -2,7 +2,9 @@ package com.happycoders.account;
 
 import com.happycoders.account.form.SignUpForm;
 import com.happycoders.account.validator.SignUpFormValidator;
+import com.happycoders.counter.SiteCounterService;
 import com.happycoders.domain.Account;
+import com.happycoders.domain.SiteCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -25,6 +27,8 @@ public class AccountController {
 
     private final AccountRepository accountRepository;
 
+    private final SiteCounterService siteCounterService;
+
     /**
      * InitBinder : form의 객체를 받을 때, 바인더를 사용해서 validator를 가동시킬 수 있다.
      *
@@ -75,7 +79,7 @@ public class AccountController {
 
         accountService.completeSignUp(account);
         // view에 전달
-        model.addAttribute("numberOfUser", accountRepository.count()); // 몇번째 유저인지
+        model.addAttribute("numberOfUser", siteCounterService.get(SiteCounter.ACCOUNTS)); // 몇번째 유저인지 (account 테이블을 세지 않는다)
         model.addAttribute("nickname", account.getNickname());
         return view;
     }
@@ -3,8 +3,12 @@ package com.happycoders.account;
 import com.happycoders.domain.Account;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Transactional(readOnly = true) //성능을 조금이나마 향상
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
@@ -16,6 +20,11 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Account findByNickname(String nickName);
 
+    // 이메일이나 닉네임으로 로그인할 때 한 번의 쿼리로 필요한 컬럼만 가져온다.
+    @Query("select new com.happycoders.account.LoginAccount(a.id, a.email, a.nickname, a.password, a.emailVerified) " +
+            "from Account a where a.email = :login or a.nickname = :login")
+    List<LoginAccount> findLoginAccounts(@Param("login") String emailOrNickname);
+
     @EntityGraph(value = "Account.withTags", type = EntityGraph.EntityGraphType.FETCH)
     Account findAccountWithTagsById (Long id);
 
@@ -2,9 +2,14 @@ package com.happycoders.account;
 
 import com.happycoders.account.form.SignUpForm;
 import com.happycoders.config.AppProperties;
+import com.happycoders.counter.SiteCounterService;
 import com.happycoders.domain.Account;
+import com.happycoders.domain.SiteCounter;
 import com.happycoders.domain.Tag;
 import com.happycoders.domain.Zone;
+import com.happycoders.image.ImageService;
+import com.happycoders.infra.cache.BoundedCache;
+import com.happycoders.infra.jpa.RequestEntityContext;
 import com.happycoders.mail.EmailMessage;
 import com.happycoders.mail.EmailService;
 import com.happycoders.settings.form.Notifications;
@@ -23,11 +28,13 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 
 @Slf4j
@@ -48,6 +55,16 @@ public class AccountService implements UserDetailsService {
 
     private final AppProperties appProperties;
 
+    private final ImageService imageService;
+
+    private final RequestEntityContext requestEntityContext;
+
+    private final SiteCounterService siteCounterService;
+
+    // 로그인 아이디 (이메일 또는 닉네임) -> 로그인 정보. 폼 로그인과 자동 로그인마다 DB 를 읽지 않도록 한다.
+    // 다른 서버에서 바뀐 비밀번호가 오래 남지 않도록 유효 시간은 짧게 둔다.
+    private final BoundedCache<String, LoginAccount> loginAccounts = new BoundedCache<>(10_000, Duration.ofMinutes(5));
+
     /**
      * saveNewAccount 에서 account는 builder를 통해 생성되고 JPA의 save를 통해 저장되었다.
      * 그 이후에 processNewAccount 메소드에서 generateEmailCheckToken()을 사용하여 token을 저장하려고 하였으나,
@@ -66,7 +83,9 @@ public class AccountService implements UserDetailsService {
         Account account = modelMapper.map(signUpForm, Account.class);
         account.generateEmailCheckToken();
 
-        return accountRepository.save(account);
+        Account newAccount = accountRepository.save(account);
+        siteCounterService.increase(SiteCounter.ACCOUNTS);
+        return newAccount;
     }
 
     public void sendSignUpConfirmEmail(Account newAccount) {
@@ -112,44 +131,79 @@ public class AccountService implements UserDetailsService {
     @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String emailOrNickName) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(emailOrNickName);
+        LoginAccount account = loginAccounts.get(emailOrNickName);
         if (account == null) {
-            account = accountRepository.findByNickname(emailOrNickName);
+            account = findLoginAccount(emailOrNickName);
+            cacheLoginAccount(emailOrNickName, account);
         }
+        return new UserAccount(account);
+    }
 
-        if (account == null) {
-            throw new UsernameNotFoundException(emailOrNickName);
-        }
+    /**
+     * 읽은 transaction 이 commit 된 뒤에 캐시에 넣는다.
+     * 가입처럼 더 큰 transaction 안에서 읽었다면 그 transaction 이 rollback 될 때 캐시에 남지 않아야 한다.
+     */
+    private void cacheLoginAccount(String emailOrNickName, LoginAccount account) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                loginAccounts.put(emailOrNickName, account);
+            }
+        });
+    }
 
-        return new UserAccount(account);
+    private LoginAccount findLoginAccount(String emailOrNickName) {
+        List<LoginAccount> accounts = accountRepository.findLoginAccounts(emailOrNickName);
+        // 다른 사람의 닉네임과 같은 이메일이 있다면 이메일이 일치하는 쪽을 우선한다.
+        return accounts.stream()
+                .filter(a -> emailOrNickName.equals(a.getEmail()))
+                .findFirst()
+                .or(() -> accounts.stream().findFirst())
+                .orElseThrow(() -> new UsernameNotFoundException(emailOrNickName));
+    }
+
+    /**
+     * 비밀번호, 닉네임, 인증 여부가 바뀌면 로그인 캐시에서 해당 계정을 지운다.
+     * commit 전에 지우면 그 사이에 로그인한 요청이 예전 값을 다시 캐시하거나, rollback 될 값을 캐시할 수 있으므로 commit 된 뒤에 지운다.
+     */
+    private void evictLoginAccount(Account account) {
+        Long accountId = account.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                loginAccounts.invalidateIf((login, cached) -> cached.getId().equals(accountId));
+            }
+        });
     }
 
     public void completeSignUp(Account account) {
         account.completeSignUp();
+        evictLoginAccount(account);
         login(account);
     }
 
     public void updateProfile(Account account, Profile profile) {
-        modelMapper.map(profile, account);
-        //현재 파라미터로 받아왔던 account는 detached 된 녀석이다. (controller에서 http session을 통해 들어온 녀석)
-        //그러므로 JPA에서 DB 변경을 해주기위해서는 save를 통해 merge를 시ㅛ켜준다.
-        accountRepository.save(account);
+        // cropper 가 보낸 data url 은 이미지 저장소에 넣고, account 에는 image key 만 남긴다.
+        profile.setProfileImage(imageService.saveProfileImage(profile.getProfileImage()));
+        //현재 파라미터로 받아왔던 account는 detached 된 녀석이다. (controller에서 CurrentAccount 로 들어온 녀석)
+        //merge 는 다시 SELECT 하므로, 고치기 전에 현재 transaction 에 붙여서 dirty checking 으로 UPDATE 한다.
+        modelMapper.map(profile, requestEntityContext.attach(account));
     }
 
     public void updatePassword(Account account, String newPassword) {
-        account.setPassword(passwordEncoder.encode(newPassword)); //password encoding
-        accountRepository.save(account); //JPA merge
+        requestEntityContext.attach(account).setPassword(passwordEncoder.encode(newPassword)); //password encoding
+        evictLoginAccount(account);
     }
 
     public void updateNotifications(Account account, Notifications notifications) {
-        modelMapper.map(notifications, account);
-        accountRepository.save(account);
+        modelMapper.map(notifications, requestEntityContext.attach(account));
     }
 
     public void updateNickname(Account account, String nickname) {
-        account.setNickname(nickname);
-        accountRepository.save(account);
-        login(account); //login을 해주지 않으면 navigation bar 에서 authentication 인증은 받아야하므로 ! 해야한다.
+        Account attached = requestEntityContext.attach(account);
+        attached.setNickname(nickname);
+        evictLoginAccount(attached);
+        login(attached); //login을 해주지 않으면 navigation bar 에서 authentication 인증은 받아야하므로 ! 해야한다.
     }
 
     public void sendLoginLink(Account account) {
@@ -179,14 +233,21 @@ public class AccountService implements UserDetailsService {
     }
 
     public void addTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().add(tag));
+        requestEntityContext.attach(account).getTags().add(tag);
     }
 
     // TODO : 관리자 기능 -> Tag 중복 or 참조 없는 것들 찾아서 수정하는 기능 구현할 것
     public void removeTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().remove(tag));
+        requestEntityContext.attach(account).getTags().remove(tag);
+    }
+
+    /**
+     * 관심 태그를 tags 와 같게 맞춘다. 바뀐 태그만 join table 에 INSERT/DELETE 하고, hibernate 가 batch 로 보낸다.
+     */
+    public void updateTags(Account account, Set<Tag> tags) {
+        Account byId = accountRepository.findAccountWithTagsById(account.getId());
+        byId.getTags().retainAll(tags);
+        byId.getTags().addAll(tags);
     }
 
     public Set<Zone> getZones(Account account) {
@@ -197,13 +258,17 @@ public class AccountService implements UserDetailsService {
     }
 
     public void addZone(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().add(zone));
+        requestEntityContext.attach(account).getZones().add(zone);
     }
 
     public void removeZone(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().remove(zone));
+        requestEntityContext.attach(account).getZones().remove(zone);
+    }
+
+    public void updateZones(Account account, Set<Zone> zones) {
+        Account byId = accountRepository.findAccountWithZonesById(account.getId());
+        byId.getZones().retainAll(zones);
+        byId.getZones().addAll(zones);
     }
 
     public Account getAccount(String nickname) {
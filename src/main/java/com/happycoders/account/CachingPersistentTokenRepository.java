@@ -0,0 +1,94 @@
+package com.happycoders.account;
+
+import com.happycoders.config.RememberMeProperties;
+import com.happycoders.infra.cache.BoundedCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+
+import java.util.Date;
+
+/**
+ * 로그인 유지 토큰 저장소 앞에 두는 캐시.
+ * <p>
+ * - 조회 : series 로 찾은 토큰을 크기와 유효 시간이 정해진 캐시에 두고, 캐시에 있으면 SELECT 하지 않는다.
+ * - 토큰 변경 (생성, rotation, 삭제) : 도난 감지가 바로 동작해야 하므로 DB 에 바로 쓰고 캐시도 같이 바꾼다.
+ *   PersistentTokenBasedRememberMeServices 는 자동 로그인마다 token 을 새로 만들므로 last_used 만 바뀌는 경우는 없다.
+ *   그래서 last_used 를 모아 두었다가 주기적으로 쓰던 flush 는 없앴고, flush 지연 시간 metric 도 함께 없앴다.
+ * <p>
+ * 다른 서버가 token 을 바꾸면 이 캐시는 예전 token 을 들고 있을 수 있다.
+ * 그래서 쿠키의 token 이 캐시와 다르면 {@link #evictIfStale} 로 캐시를 버리고 DB 의 값으로 다시 비교한다. (SecurityConfig 참고)
+ */
+public class CachingPersistentTokenRepository implements PersistentTokenRepository {
+
+    private final PersistentTokenRepository delegate;
+
+    private final BoundedCache<String, PersistentRememberMeToken> tokens;
+
+    public CachingPersistentTokenRepository(PersistentTokenRepository delegate, RememberMeProperties properties,
+                                            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.tokens = new BoundedCache<>(properties.getCacheSize(), properties.getCacheTtl());
+
+        FunctionCounter.builder("cache.gets", tokens, BoundedCache::hitCount)
+                .tag("cache", "remember-me-tokens").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", tokens, BoundedCache::missCount)
+                .tag("cache", "remember-me-tokens").tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", tokens, BoundedCache::size)
+                .tag("cache", "remember-me-tokens")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void createNewToken(PersistentRememberMeToken token) {
+        delegate.createNewToken(token);
+        tokens.put(token.getSeries(), token);
+    }
+
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        delegate.updateToken(series, tokenValue, lastUsed);
+        PersistentRememberMeToken cached = tokens.peek(series);
+        if (cached != null) {
+            tokens.put(series, new PersistentRememberMeToken(cached.getUsername(), series, tokenValue, lastUsed));
+        } else {
+            tokens.invalidate(series);
+        }
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        PersistentRememberMeToken cached = tokens.get(seriesId);
+        if (cached != null) {
+            return cached;
+        }
+
+        PersistentRememberMeToken token = delegate.getTokenForSeries(seriesId);
+        if (token != null) {
+            tokens.put(seriesId, token);
+        }
+        return token;
+    }
+
+    @Override
+    public void removeUserTokens(String username) {
+        delegate.removeUserTokens(username);
+        tokens.invalidateIf((series, token) -> token.getUsername().equals(username));
+    }
+
+    /**
+     * 쿠키의 token 과 캐시의 token 이 다르면 캐시를 버린다.
+     * 다른 서버에서 rotation 이 일어났을 수 있으므로, 도난 여부는 DB 의 값으로 판단하게 한다.
+     */
+    public void evictIfStale(String series, String presentedToken) {
+        PersistentRememberMeToken cached = tokens.peek(series);
+        if (cached != null && !cached.getTokenValue().equals(presentedToken)) {
+            tokens.invalidate(series);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.happycoders.account;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 캐시된 토큰이 쿠키와 다르면 도난으로 판단하기 전에 캐시를 버리고 DB 의 토큰으로 다시 확인하게 한다.
+ */
+public class CachingRememberMeServices extends PersistentTokenBasedRememberMeServices {
+
+    private final CachingPersistentTokenRepository tokenRepository;
+
+    public CachingRememberMeServices(String key, UserDetailsService userDetailsService,
+                                     CachingPersistentTokenRepository tokenRepository) {
+        super(key, userDetailsService, tokenRepository);
+        this.tokenRepository = tokenRepository;
+    }
+
+    @Override
+    protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request, HttpServletResponse response) {
+        if (cookieTokens.length == 2) {
+            tokenRepository.evictIfStale(cookieTokens[0], cookieTokens[1]);
+        }
+        return super.processAutoLoginCookie(cookieTokens, request, response);
+    }
+
+}
@@ -1,7 +1,5 @@
 package com.happycoders.account;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -9,9 +7,8 @@ import java.lang.annotation.Target;
 
 @Retention(RetentionPolicy.RUNTIME) //runtime 까지 유지되도록함
 @Target(ElementType.PARAMETER) // parameter에만 사용할 수 있도록 함
-// 현재 참조하고 있는 객체가 'anonymousUser' 라면 (anonymousUser는 spring에서 정해진 문자열이다.)
-// account라는 속성명은 UserAccount에 있는 account 필드 이름과 매핑이되는 것이다.
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
+// 로그인한 사용자의 Account 를 handler 파라미터로 받는다. 로그인하지 않았다면 ('anonymousUser') null 이 들어온다.
+// session 의 UserAccount 에는 account id 만 있으므로 CurrentAccountArgumentResolver 가 요청마다 한 번만 DB 에서 조회한다.
 public @interface CurrentAccount {
 
 }
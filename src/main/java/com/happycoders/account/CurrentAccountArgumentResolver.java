@@ -0,0 +1,49 @@
+package com.happycoders.account;
+
+import com.happycoders.domain.Account;
+import com.happycoders.infra.jpa.RequestEntityContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * {@link CurrentAccount} 가 붙은 Account 파라미터를 채워준다.
+ * <p>
+ * principal 의 account id 로 Account 를 조회하고, 같은 요청 안에서 다시 필요하면 {@link RequestEntityContext} 에 둔 것을 쓴다.
+ * handler 가 Account 를 받지 않으면 조회하지 않는다.
+ */
+@RequiredArgsConstructor
+@Component
+public class CurrentAccountArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final AccountRepository accountRepository;
+
+    private final RequestEntityContext requestEntityContext;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentAccount.class)
+                && Account.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserAccount)) {
+            return null;
+        }
+
+        UserAccount userAccount = (UserAccount) authentication.getPrincipal();
+        return requestEntityContext.find(Account.class, userAccount.getAccountId())
+                .or(() -> accountRepository.findById(userAccount.getAccountId()).map(requestEntityContext::remember))
+                .orElse(null);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.happycoders.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 로그인에 필요한 Account 의 컬럼만 담은 projection.
+ * 캐시에 그대로 들어가므로 immutable 로 둔다.
+ */
+@Getter
+@AllArgsConstructor
+public class LoginAccount {
+
+    private final Long id;
+
+    private final String email;
+
+    private final String nickname;
+
+    private final String password;
+
+    private final boolean emailVerified;
+
+}
@@ -13,17 +13,35 @@ import java.util.List;
  * 로그인할 때 account라는 principal을 security는 들고 있지 않다.
  * 그러므로 중간다리가 필요하다.
  * Spring Security가 다루는 유저정보와, domain 에서 다루는 유저정보의 사이의 갭을 매꾸어주는 어답터라고 생각하면 된다.
+ * <p>
+ * principal 은 http session 에 저장되므로 Account 엔티티 전체가 아니라 id, nickname, 이메일 인증 여부만 들고 있는다.
+ * Account 가 필요한 handler 는 {@link CurrentAccount} 로 요청마다 한 번 조회해서 쓴다. (CurrentAccountArgumentResolver)
  */
 @Getter
 public class UserAccount extends User {
 
-    private Account account;
+    private final Long accountId;
+
+    private final String nickname;
+
+    private final boolean emailVerified;
 
     public UserAccount(Account account) {
         super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        //UserAccount의 필드인 account에 받아온 account를 넣어줘야한다.
-        this.account = account;
+        this.accountId = account.getId();
+        this.nickname = account.getNickname();
+        this.emailVerified = account.isEmailVerified();
     }
 
+    public UserAccount(LoginAccount account) {
+        super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        this.accountId = account.getId();
+        this.nickname = account.getNickname();
+        this.emailVerified = account.isEmailVerified();
+    }
+
+    public boolean isAccountOf(Account account) {
+        return account != null && this.accountId.equals(account.getId());
+    }
 
 }
@@ -4,9 +4,13 @@ import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.NameTokenizers;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+// 주기적인 작업 : 스터디 검색 색인 저장 (StudySearchIndex), 대기자 확정 (WaitlistPromoter),
+// 미리 센 값 맞추기 (CounterReconciler), 태그 자동완성 색인 다시 읽기 (TagAutocompleteIndex)
+@EnableScheduling
 @Configuration
 public class AppConfig {
 
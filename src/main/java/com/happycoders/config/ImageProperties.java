@@ -0,0 +1,28 @@
+package com.happycoders.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties("app.image") //이미지 저장소 설정
+public class ImageProperties {
+
+    // 이미지 파일이 저장될 로컬 디렉토리
+    private String dir = System.getProperty("user.home") + "/.happycoders/images";
+
+    // 썸네일을 만드는 worker 스레드 수
+    private int resizeWorkers = 2;
+
+    // 처리를 기다릴 수 있는 썸네일 작업 수. 넘치는 작업은 버리고 이미지가 처음 요청될 때 다시 만든다.
+    private int resizeQueueCapacity = 100;
+
+    // multipart 로 올릴 수 있는 이미지 파일의 최대 크기
+    private DataSize maxUploadSize = DataSize.ofMegabytes(5);
+
+    // 디코딩을 허용할 최대 픽셀 수. 작은 파일로 거대한 이미지를 만드는 decompression bomb 을 막는다.
+    private long maxPixels = 25_000_000L;
+
+}
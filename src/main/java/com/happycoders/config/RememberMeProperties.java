@@ -0,0 +1,20 @@
+package com.happycoders.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.remember-me") //로그인 유지 토큰 캐시 설정
+public class RememberMeProperties {
+
+    // 메모리에 들고 있을 토큰(series) 수
+    private int cacheSize = 10_000;
+
+    // 캐시한 토큰을 DB 에서 다시 읽기 전까지의 시간
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+}
@@ -0,0 +1,21 @@
+package com.happycoders.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("app.search") //스터디 검색 인덱스 설정
+public class SearchProperties {
+
+    // 검색 인덱스 파일을 저장할 로컬 디렉토리
+    private String dir = System.getProperty("user.home") + "/.happycoders/search";
+
+    // DB 에서 인덱스를 다시 만들 때 사용할 스레드 수
+    private int rebuildThreads = Runtime.getRuntime().availableProcessors();
+
+    // 인덱스를 다시 만들 때 한 번에 읽을 스터디 수
+    private int rebuildChunkSize = 500;
+
+}
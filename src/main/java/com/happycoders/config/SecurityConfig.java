@@ -1,6 +1,9 @@
 package com.happycoders.config;
 
 import com.happycoders.account.AccountService;
+import com.happycoders.account.CachingPersistentTokenRepository;
+import com.happycoders.account.CachingRememberMeServices;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
@@ -11,9 +14,9 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
 
 import javax.sql.DataSource;
+import java.util.UUID;
 
 @Configuration
 @RequiredArgsConstructor
@@ -25,6 +28,13 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final DataSource dataSource;
 
+    private final RememberMeProperties rememberMeProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    // remember-me 인증 토큰과 RememberMeServices 가 같은 key 를 써야 한다.
+    private final String rememberMeKey = UUID.randomUUID().toString();
+
     //WebSecurity Configurer Adapter에서 overriding하면된다.
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -32,6 +42,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .mvcMatchers("/", "/login", "/sign-up", "/check-email-token",
                         "/email-login", "/login-by-email").permitAll() //Get이든 Post든 모든 요청은 permitAll. 즉, 인증없이 권한없어도 들어올수있다.
                 .mvcMatchers(HttpMethod.GET, "/profile/*").permitAll() // profile 요청은 Get 요청만 모두에게 열려있음
+                .mvcMatchers(HttpMethod.GET, "/search/study").permitAll() // 공개된 스터디 검색
+                .mvcMatchers(HttpMethod.GET, "/search/study/text").permitAll() // 스터디 전문 검색
                 .anyRequest().authenticated(); //나머지요청은 로그인을 해야지 볼수있다.
 
         http.formLogin()
@@ -42,16 +54,17 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         //cookie를 통해 로그인 유지 및 보안
         http.rememberMe()
-                .userDetailsService(accountService)
-                .tokenRepository(tokenRepository());
+                .key(rememberMeKey)
+                .rememberMeServices(new CachingRememberMeServices(rememberMeKey, accountService, tokenRepository()));
 
     }
 
+    // 매 자동 로그인마다 SELECT 하지 않도록 캐시를 앞에 둔다.
     @Bean
-    public PersistentTokenRepository tokenRepository() {
+    public CachingPersistentTokenRepository tokenRepository() {
         JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
         jdbcTokenRepository.setDataSource(dataSource);
-        return jdbcTokenRepository;
+        return new CachingPersistentTokenRepository(jdbcTokenRepository, rememberMeProperties, meterRegistry);
     }
 
     @Override
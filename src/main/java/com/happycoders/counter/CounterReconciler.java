@@ -0,0 +1,100 @@
+package com.happycoders.counter;
+
+import com.happycoders.domain.SiteCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+
+/**
+ * 미리 세어 둔 값 (Study.memberCount, managerCount, Event.acceptedCount, SiteCounter) 을 실제 행 수와 맞춘다.
+ * <p>
+ * 평소에는 가입, 탈퇴, 참가 신청을 처리하면서 같은 transaction 에서 바꾸므로 어긋나지 않지만,
+ * 직접 고친 데이터나 이 값이 생기기 전의 데이터는 여기서 바로잡는다. 기동할 때 한 번, 이후에는 매일 새벽에 실행한다.
+ * 값이 다른 행만 UPDATE 하고, 읽고 쓰는 사이에 들어온 변경을 덮어쓰지 않도록 UPDATE 한 번으로 센 값을 넣는다.
+ * <p>
+ * SiteCounterService#increase 는 행이 없으면 아무것도 하지 않으므로, SiteCounter 행은 서버가 요청을 받기 전에 (ContextRefreshedEvent) 만든다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CounterReconciler {
+
+    // hibernate.globally_quoted_identifiers 를 켜 두었으므로 native SQL 에서도 이름을 따옴표로 감싼다.
+    private static final String STUDY_MEMBER_COUNT =
+            "update \"study\" s set \"member_count\" = (select count(*) from \"study_members\" m where m.\"study_id\" = s.\"id\") " +
+                    "where \"member_count\" <> (select count(*) from \"study_members\" m where m.\"study_id\" = s.\"id\")";
+
+    private static final String STUDY_MANAGER_COUNT =
+            "update \"study\" s set \"manager_count\" = (select count(*) from \"study_managers\" m where m.\"study_id\" = s.\"id\") " +
+                    "where \"manager_count\" <> (select count(*) from \"study_managers\" m where m.\"study_id\" = s.\"id\")";
+
+    private static final String EVENT_ACCEPTED_COUNT =
+            "update \"event\" e set \"accepted_count\" = (select count(*) from \"enrollment\" n where n.\"event_id\" = e.\"id\" and n.\"accepted\" = true) " +
+                    "where \"accepted_count\" <> (select count(*) from \"enrollment\" n where n.\"event_id\" = e.\"id\" and n.\"accepted\" = true)";
+
+    // SiteCounter 이름 -> 실제 행 수를 세는 SQL
+    private static final Map<String, String> SITE_COUNTS = Map.of(
+            SiteCounter.ACCOUNTS, "select count(*) from \"account\"",
+            SiteCounter.STUDIES, "select count(*) from \"study\"");
+
+    private static final String SITE_COUNTER =
+            "update \"site_counter\" set \"value\" = (%1$s) where \"name\" = :name and \"value\" <> (%1$s)";
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SiteCounterRepository siteCounterRepository;
+
+    /**
+     * 없는 SiteCounter 행을 실제 값으로 만든다. 여러 서버가 동시에 기동해서 먼저 만든 쪽이 있으면 그대로 둔다.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void createSiteCounters() {
+        SITE_COUNTS.forEach((name, sql) -> {
+            try {
+                transactionTemplate.execute(status -> {
+                    long actual = ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+                    return siteCounterRepository.insertIfAbsent(name, actual);
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.debug("site counter {} was created by another server", name);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${app.counter.reconcile-cron:0 30 4 * * *}")
+    public void reconcile() {
+        transactionTemplate.execute(status -> {
+            int studies = entityManager.createNativeQuery(STUDY_MEMBER_COUNT).executeUpdate()
+                    + entityManager.createNativeQuery(STUDY_MANAGER_COUNT).executeUpdate();
+            int events = entityManager.createNativeQuery(EVENT_ACCEPTED_COUNT).executeUpdate();
+
+            SITE_COUNTS.forEach((name, sql) -> {
+                if (entityManager.createNativeQuery(String.format(SITE_COUNTER, sql)).setParameter("name", name).executeUpdate() > 0) {
+                    log.info("site counter {} drifted and was reconciled", name);
+                }
+            });
+
+            if (studies > 0 || events > 0) {
+                log.info("reconciled counters of {} study rows and {} event rows", studies, events);
+            }
+            return null;
+        });
+    }
+
+}
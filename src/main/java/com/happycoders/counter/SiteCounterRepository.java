@@ -0,0 +1,26 @@
+package com.happycoders.counter;
+
+import com.happycoders.domain.SiteCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public interface SiteCounterRepository extends JpaRepository<SiteCounter, String> {
+
+    // 읽고 쓰지 않고 UPDATE 한 번으로 더하므로 동시에 가입해도 빠지는 값이 없다. 행이 없으면 0 을 돌려준다.
+    @Transactional
+    @Modifying
+    @Query("update SiteCounter c set c.value = c.value + :delta where c.name = :name")
+    int add(@Param("name") String name, @Param("delta") long delta);
+
+    // 행이 없을 때만 value 로 만든다. 이미 있으면 0 을 돌려준다.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into \"site_counter\" (\"name\", \"value\") select :name, :value " +
+            "where not exists (select 1 from \"site_counter\" where \"name\" = :name)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("value") long value);
+
+}
@@ -0,0 +1,32 @@
+package com.happycoders.counter;
+
+import com.happycoders.domain.SiteCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Transactional
+@Service
+public class SiteCounterService {
+
+    private final SiteCounterRepository siteCounterRepository;
+
+    /**
+     * 호출한 쪽의 transaction 안에서 더하므로, 가입이나 스터디 개설이 rollback 되면 함께 rollback 된다.
+     * 행은 CounterReconciler 가 서버가 요청을 받기 전에 실제 값으로 만들어 둔다.
+     */
+    public void increase(String name) {
+        siteCounterRepository.add(name, 1);
+    }
+
+    public void decrease(String name) {
+        siteCounterRepository.add(name, -1);
+    }
+
+    @Transactional(readOnly = true)
+    public long get(String name) {
+        return siteCounterRepository.findById(name).map(SiteCounter::getValue).orElse(0L);
+    }
+
+}
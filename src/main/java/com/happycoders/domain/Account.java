@@ -60,9 +60,9 @@ public class Account {
     //사는 지역
     private String location; // varchar(255)
 
-    @Lob
-    @Basic(fetch = FetchType.EAGER)
-    private String profileImage; // varchar (255)보다 커야하므로 lob으로
+    // data url 대신 이미지 저장소의 image key (SHA-256 해시) 만 저장한다.
+    @Column(name = "profile_image_key", length = 64)
+    private String profileImage;
 
     private boolean studyCreatedByEmail;
 
@@ -4,12 +4,15 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.Id;
-import javax.persistence.ManyToOne;
+import javax.persistence.*;
 import java.time.LocalDateTime;
 
+// 한 모임에 한 사람은 한 번만 신청한다. (event_id, account_id) unique 인덱스가 신청 여부 조회도 받친다.
+// 대기자는 (event_id, accepted, enrolledAt) 순서로 읽는다.
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_enrollment_event_account", columnNames = {"event_id", "account_id"}),
+        indexes = {
+                @Index(name = "idx_enrollment_account", columnList = "account_id"),
+                @Index(name = "idx_enrollment_waiting", columnList = "event_id, accepted, enrolledAt")})
 @Entity
 @Getter @Setter @EqualsAndHashCode (of = "id")
 public class Enrollment {
@@ -17,10 +20,10 @@ public class Enrollment {
     @Id @GeneratedValue
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Event event;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     private LocalDateTime enrolledAt;
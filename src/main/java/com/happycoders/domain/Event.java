@@ -1,18 +1,22 @@
 package com.happycoders.domain;
 
-import com.happycoders.account.UserAccount;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @NamedEntityGraph(
         name = "Event.withEnrollments",
         attributeNodes = @NamedAttributeNode("enrollments")
 )
+// 스터디 모임 목록 (EventQueryService) 은 한 스터디의 모임을 endDateTime 으로 다가오는 모임과 지난 모임으로 나누고 startDateTime 순서로 읽는다.
+// study_id 로 찾고 startDateTime 순서로 따라가면서 endDateTime 조건은 인덱스 안에서 걸러내므로, 정렬하지 않고 조건에 맞지 않는 행도 읽지 않는다.
+// ddl-auto: update 는 같은 이름의 인덱스를 고치지 않으므로 endDateTime 을 더하면서 이름을 바꿨다. 예전 idx_event_study_start 는 지워도 된다.
+@Table(indexes = @Index(name = "idx_event_study_start_end", columnList = "study_id, startDateTime, endDateTime"))
 @Getter
 @Setter
 @EqualsAndHashCode(of = "id")
@@ -49,43 +53,23 @@ public class Event {
 
     private Integer limitOfEnrollments;
 
+    // enrollments 를 읽지 않고 확정된 참가 인원을 보여주기 위한 값. 참가 신청을 확정하거나 취소할 때 EventRepository#takeSeat 같은 UPDATE 로만 바꾼다.
+    // 모임 수정처럼 행 전체를 UPDATE 할 때 먼저 읽어 둔 값으로 덮어쓰지 않도록 updatable = false 로 둔다.
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int acceptedCount;
+
     @OneToMany(mappedBy = "event")
-    private List<Enrollment> enrollments;
+    private List<Enrollment> enrollments = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
     private EventType eventType;
 
-    public boolean isEnrollableFor(UserAccount userAccount) {
-        return isNotClosed() && !isAlreadyEnrolled(userAccount);
-    }
-
-    public boolean isDisenrollableFor(UserAccount userAccount) {
-        return isNotClosed() && isAlreadyEnrolled(userAccount);
-    }
-
-    public boolean isAttended(UserAccount userAccount) {
-        Account account = userAccount.getAccount();
-        for (Enrollment e : this.enrollments) {
-            if(e.getAccount().equals(account) && e.isAttended()) {
-                return true;
-            }
-        }
-
-        return false;
+    public boolean isEnrollmentOpen() {
+        return isNotClosed();
     }
 
     private boolean isNotClosed() {
         return this.endEnrollmentDateTime.isAfter(LocalDateTime.now());
     }
 
-    private boolean isAlreadyEnrolled(UserAccount userAccount) { //TODO : REFACTOR 필요
-        Account account = userAccount.getAccount();
-        for (Enrollment e : this.enrollments) {
-            if (e.getAccount().equals(account)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
 }
@@ -0,0 +1,30 @@
+package com.happycoders.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 사이트 전체 합계 (가입한 회원 수, 스터디 수).
+ * 화면마다 테이블 전체를 count 하지 않도록 가입, 스터디 개설/삭제 때 함께 더하고 빼며, CounterReconciler 가 주기적으로 맞춘다.
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode(of = "name")
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteCounter {
+
+    public static final String ACCOUNTS = "accounts";
+
+    public static final String STUDIES = "studies";
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private long value;
+
+}
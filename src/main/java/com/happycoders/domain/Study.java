@@ -10,11 +10,6 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
-@NamedEntityGraph(name = "Study.withAll", attributeNodes = {
-        @NamedAttributeNode("tags"),
-        @NamedAttributeNode("zones"),
-        @NamedAttributeNode("managers"),
-        @NamedAttributeNode("members")})
 @NamedEntityGraph(name = "Study.withTagsAndManagers", attributeNodes = {
         @NamedAttributeNode("tags"),
         @NamedAttributeNode("managers")})
@@ -23,6 +18,11 @@ import java.util.Set;
         @NamedAttributeNode("managers")})
 @NamedEntityGraph(name = "Study.withManagers", attributeNodes = {
         @NamedAttributeNode("managers")})
+// 스터디 검색 (StudyQueryService#search) 은 공개된 스터디를 (publishedDateTime, id) 순서로 읽는다.
+@Table(indexes = {
+        @Index(name = "idx_study_published", columnList = "published, publishedDateTime, id"),
+        @Index(name = "idx_study_recruiting", columnList = "published, recruiting, publishedDateTime, id"),
+        @Index(name = "idx_study_closed", columnList = "published, closed, publishedDateTime, id")})
 @Entity
 @Getter
 @Setter
@@ -39,9 +39,19 @@ public class Study {
     @ManyToMany
     private Set<Account> managers = new HashSet<>();
 
+    // 가입, 탈퇴는 join table 에 한 행씩 직접 쓴다. (StudyRepository#insertMember) 화면에서 인원 수가 필요하면 memberCount 를 쓴다.
     @ManyToMany
     private Set<Account> members = new HashSet<>();
 
+    // members 를 읽지 않고 인원 수를 보여주기 위한 값. 가입, 탈퇴할 때 StudyRepository#increaseMemberCount 같은 UPDATE 로만 바꾼다.
+    // 공개, 제목 수정처럼 스터디 행 전체를 UPDATE 할 때 먼저 읽어 둔 값으로 덮어쓰지 않도록 updatable = false 로 둔다.
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int memberCount;
+
+    // managers 를 읽지 않고 관리자 수를 보여주기 위한 값. memberCount 와 같이 StudyRepository#increaseManagerCount 로만 바꾼다.
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int managerCount;
+
     @Column(unique = true)
     private String path;
 
@@ -49,18 +59,21 @@ public class Study {
 
     private String shortDescription;
 
-    @Lob
-    @Basic(fetch = FetchType.EAGER) // Lob 값이지만, 무조건 가져오게 하기 위해 eager로
-    private String fullDescription;
+    // 상세 소개는 Lob 이므로 별도 테이블에 두고, 필요한 화면에서만 가져온다. (StudyRepository#findStudyWithAllByPath)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    private StudyContent content;
 
-    @Lob
-    @Basic(fetch = FetchType.EAGER)
+    // 배너 이미지의 image key (SHA-256 해시)
+    @Column(name = "image_key", length = 64)
     private String image;
 
+    // 태그, 지역으로 스터디를 찾을 때 쓰도록 반대 방향 인덱스를 둔다. (기본 키는 study_id 가 앞에 온다)
     @ManyToMany
+    @JoinTable(name = "study_tags", indexes = @Index(name = "idx_study_tags_tag", columnList = "tags_id, study_id"))
     private Set<Tag> tags = new HashSet<>();
 
     @ManyToMany
+    @JoinTable(name = "study_zones", indexes = @Index(name = "idx_study_zones_zone", columnList = "zones_id, study_id"))
     private Set<Zone> zones = new HashSet<>();
 
     private LocalDateTime publishedDateTime;
@@ -77,25 +90,53 @@ public class Study {
 
     private boolean useBanner;
 
-    public void addManager(Account account) {
-        this.managers.add(account);
+    // managerCount 는 바꾸지 않는다. 관리자가 더해졌으면 true 를 돌려주고, 부른 쪽이 StudyRepository#increaseManagerCount 를 부른다.
+    public boolean addManager(Account account) {
+        return this.managers.add(account);
     }
 
     public boolean isJoinable(UserAccount userAccount) {
-        Account account = userAccount.getAccount();
-        return this.isPublished() && this.isRecruiting() && !this.members.contains(account) && !this.managers.contains(account);
+        return this.isPublished() && this.isRecruiting() && !this.isMember(userAccount) && !this.isManager(userAccount);
     }
 
+    // principal 에는 account id 만 있으므로 id 로 비교한다.
     public boolean isMember(UserAccount userAccount) {
-        return this.members.contains(userAccount.getAccount());
+        return this.members.stream().anyMatch(userAccount::isAccountOf);
     }
 
     public boolean isManager(UserAccount userAccount) {
-        return this.managers.contains(userAccount.getAccount());
+        return this.managers.stream().anyMatch(userAccount::isAccountOf);
+    }
+
+    public String getFullDescription() {
+        return this.content != null ? this.content.getFullDescription() : null;
+    }
+
+    public void setFullDescription(String fullDescription) {
+        if (this.content == null) {
+            this.content = new StudyContent(fullDescription);
+        } else {
+            this.content.setFullDescription(fullDescription);
+        }
+    }
+
+    // DB 의 값은 StudyRepository 가 바꾼다. 이미 읽어 둔 엔티티의 값만 맞춘다.
+    public void increaseMemberCount() {
+        this.memberCount++;
+    }
+
+    public void decreaseMemberCount() {
+        if (this.memberCount > 0) {
+            this.memberCount--;
+        }
+    }
+
+    public String getImageUrl() {
+        return image != null ? "/images/" + image : "/images/default_banner.png";
     }
 
-    public String getImage() {
-        return image != null ? image : "/images/default_banner.png";
+    public String getImageUrl(int width) {
+        return image != null ? "/images/" + image + "/" + width : "/images/default_banner.png";
     }
 
     public void publish() {
@@ -0,0 +1,30 @@
+package com.happycoders.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 스터디의 상세 소개 (Lob)
+ * 스터디 화면과 소개 수정 화면에서만 쓰이므로 study 테이블에서 분리해서, 권한 확인이나 멤버 처리처럼 study 를 읽는 다른 곳에서는 가져오지 않는다.
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyContent {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Lob
+    private String fullDescription;
+
+    public StudyContent(String fullDescription) {
+        this.fullDescription = fullDescription;
+    }
+
+}
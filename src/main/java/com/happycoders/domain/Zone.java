@@ -2,10 +2,7 @@ package com.happycoders.domain;
 
 import lombok.*;
 
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.Id;
+import javax.persistence.*;
 
 @Entity
 @Getter
@@ -16,8 +13,10 @@ import javax.persistence.Id;
 @NoArgsConstructor
 public class Zone {
 
+    // 기준 데이터를 batch 로 넣을 때 행마다 sequence 를 부르지 않도록 50 개씩 미리 할당받는다. (pooled optimizer)
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "zone_seq")
+    @SequenceGenerator(name = "zone_seq", sequenceName = "zone_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
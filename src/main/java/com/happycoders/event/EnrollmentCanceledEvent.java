@@ -0,0 +1,15 @@
+package com.happycoders.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 선착순 모임의 확정된 참가 신청이 취소되어 자리가 하나 비었을 때 발행된다. WaitlistPromoter 가 받아서 대기자를 확정한다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentCanceledEvent {
+
+    private final Long eventId;
+
+}
@@ -0,0 +1,107 @@
+package com.happycoders.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * enrollment 테이블에 (event_id, account_id) unique 제약 (uk_enrollment_event_account) 이 있는지 기동할 때 확인한다.
+ * <p>
+ * EventService#enroll 은 같은 사람의 동시 신청을 이 제약으로 막는다. 그런데 ddl-auto: update 는 중복 행이 이미 있는 DB 에서
+ * 제약을 만들지 못하면 경고만 남기고 넘어가므로, 제약이 없으면 중복 신청을 지우고 직접 만든다.
+ * 중복 가운데 가장 먼저 만든 (id 가 가장 작은) 신청을 남기고, 지우는 신청이 확정되었거나 참석했으면 남기는 신청에 옮긴다.
+ * 그래도 제약이 없으면 기동을 멈춘다.
+ * <p>
+ * 서버가 요청을 받기 전에 (ContextRefreshedEvent) 실행한다. 바뀐 확정 인원은 기동 후 CounterReconciler 가 맞춘다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class EnrollmentDeduplication {
+
+    static final String CONSTRAINT = "uk_enrollment_event_account";
+
+    private static final Set<String> COLUMNS = Set.of("event_id", "account_id");
+
+    // hibernate.globally_quoted_identifiers 를 켜 두었으므로 native SQL 에서도 이름을 따옴표로 감싼다.
+    private static final String SAME_ENROLLMENT =
+            "select 1 from \"enrollment\" d where d.\"event_id\" = n.\"event_id\" and d.\"account_id\" = n.\"account_id\"";
+
+    private static final String KEEP_ACCEPTED =
+            "update \"enrollment\" n set \"accepted\" = true where n.\"accepted\" = false " +
+                    "and exists (" + SAME_ENROLLMENT + " and d.\"accepted\" = true)";
+
+    private static final String KEEP_ATTENDED =
+            "update \"enrollment\" n set \"attended\" = true where n.\"attended\" = false " +
+                    "and exists (" + SAME_ENROLLMENT + " and d.\"attended\" = true)";
+
+    private static final String DELETE_DUPLICATES =
+            "delete from \"enrollment\" n where exists (" + SAME_ENROLLMENT + " and d.\"id\" < n.\"id\")";
+
+    private static final String ADD_CONSTRAINT =
+            "alter table \"enrollment\" add constraint \"" + CONSTRAINT + "\" unique (\"event_id\", \"account_id\")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureUniqueConstraint() {
+        if (hasUniqueConstraint()) {
+            return;
+        }
+
+        try {
+            int deleted = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(KEEP_ACCEPTED);
+                jdbcTemplate.update(KEEP_ATTENDED);
+                return jdbcTemplate.update(DELETE_DUPLICATES);
+            });
+            jdbcTemplate.execute(ADD_CONSTRAINT);
+            log.warn("removed {} duplicate enrollments and added {}", deleted, CONSTRAINT);
+        } catch (DataAccessException e) {
+            // 여러 서버가 동시에 기동해서 다른 서버가 먼저 만들었을 수 있다. 아래에서 다시 확인한다.
+            log.debug("could not add {}", CONSTRAINT, e);
+        }
+
+        if (!hasUniqueConstraint()) {
+            throw new IllegalStateException("enrollment 테이블에 " + CONSTRAINT + " 제약이 없습니다.");
+        }
+    }
+
+    /**
+     * 이름은 DB 마다 달라질 수 있으므로 (event_id, account_id) 두 컬럼으로만 된 unique 인덱스가 있는지 본다.
+     */
+    boolean hasUniqueConstraint() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            ResultSet indexes = connection.getMetaData().getIndexInfo(null, null, "enrollment", true, false);
+            try {
+                Map<String, Set<String>> columnsByIndex = new HashMap<>();
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (column != null) {
+                        columnsByIndex.computeIfAbsent(indexes.getString("INDEX_NAME"), name -> new HashSet<>())
+                                .add(column.toLowerCase());
+                    }
+                }
+                return columnsByIndex.containsValue(COLUMNS);
+            } finally {
+                JdbcUtils.closeResultSet(indexes);
+            }
+        }));
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.happycoders.event;
+
+import com.happycoders.domain.Enrollment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+
+    Optional<Enrollment> findByEventIdAndAccountId(Long eventId, Long accountId);
+
+    // 같은 신청을 동시에 취소하면 한 쪽만 1 을 받는다. 1 을 받은 쪽만 자리를 돌려준다.
+    @Transactional
+    @Modifying
+    @Query("delete from Enrollment n where n.id = :id")
+    int deleteEnrollment(@Param("id") Long id);
+
+    /**
+     * 대기자 가운데 가장 먼저 신청한 사람. (event_id, accepted, enrolledAt) 인덱스를 따라 첫 행만 읽는다.
+     */
+    @Query("select n from Enrollment n join fetch n.account join fetch n.event " +
+            "where n.event.id = :eventId and n.accepted = false order by n.enrolledAt, n.id")
+    List<Enrollment> findWaiting(@Param("eventId") Long eventId, Pageable pageable);
+
+    // 대기 중인 신청만 확정한다. 이미 확정되었거나 취소된 신청이면 0 을 돌려준다.
+    @Transactional
+    @Modifying
+    @Query("update Enrollment n set n.accepted = true where n.id = :id and n.accepted = false")
+    int accept(@Param("id") Long id);
+
+    /**
+     * 자리가 남아 있는데 대기자가 있는 선착순 모임. 놓친 취소 (서버 재시작 등) 를 WaitlistPromoter 가 다시 처리하도록 찾는다.
+     */
+    @Query("select distinct e.id from Enrollment n join n.event e where n.accepted = false " +
+            "and e.eventType = com.happycoders.domain.EventType.FCFS and e.acceptedCount < e.limitOfEnrollments " +
+            "and e.endEnrollmentDateTime > :now")
+    List<Long> findEventIdsToPromote(@Param("now") LocalDateTime now);
+
+}
@@ -5,8 +5,11 @@ import com.happycoders.domain.Account;
 import com.happycoders.domain.Event;
 import com.happycoders.domain.Study;
 import com.happycoders.event.form.EventForm;
+import com.happycoders.event.query.EventQueryService;
 import com.happycoders.event.validator.EventValidator;
 import com.happycoders.study.StudyService;
+import com.happycoders.study.query.StudyQueryService;
+import com.happycoders.study.query.StudyView;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Controller;
@@ -16,17 +19,15 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Controller
 @RequestMapping("/study/{path}")
 @RequiredArgsConstructor
 public class EventController {
 
-    private final EventRepository eventRepository;
-
     private final StudyService studyService;
 
     private final EventService eventService;
@@ -35,6 +36,10 @@ public class EventController {
 
     private final EventValidator eventValidator;
 
+    private final StudyQueryService studyQueryService;
+
+    private final EventQueryService eventQueryService;
+
     @InitBinder("eventForm")
     public void initBinder(WebDataBinder webDataBinder) {
         webDataBinder.addValidators(eventValidator);
@@ -64,47 +69,38 @@ public class EventController {
 
     @GetMapping("/events/{id}")
     public String getEvent(@CurrentAccount Account account, @PathVariable String path, @PathVariable Long id, Model model) {
+        // 스터디는 배너와 관리자 여부만, 모임은 참가 신청과 신청자 요약까지 정해진 수의 쿼리로 읽는다.
+        StudyView study = studyQueryService.getStudyHeaderView(path, account);
         model.addAttribute(account);
-        model.addAttribute(eventRepository.findById(id).orElseThrow());
-        model.addAttribute(studyService.getStudy(path));
+        model.addAttribute("event", eventQueryService.getEventView(study.getId(), id));
+        model.addAttribute("study", study);
         return "event/view";
     }
 
+    /**
+     * 다가오는 모임은 모두, 지난 모임은 page 번째 페이지만 보여준다. 참가 신청 목록은 읽지 않고 신청 수만 센다.
+     */
     @GetMapping("/events")
-    public String viewStudyEvents (@CurrentAccount Account account, @PathVariable String path, Model model) {
-        Study study = studyService.getStudy(path);
+    public String viewStudyEvents (@CurrentAccount Account account, @PathVariable String path,
+                                   @RequestParam(defaultValue = "0") int page, Model model) {
+        StudyView study = studyQueryService.getStudyEventsView(path, account);
+        LocalDateTime now = LocalDateTime.now();
         model.addAttribute(account);
-        model.addAttribute(study);
-
-        List<Event> events = eventRepository.findByStudyOrderByStartDateTime(study);
-        List<Event> newEvents = new ArrayList<>();
-        List<Event> oldEvents = new ArrayList<>();
-
-        events.forEach(e -> {
-            if (e.getEndDateTime().isBefore(LocalDateTime.now())) {
-                oldEvents.add(e);
-            } else {
-                newEvents.add(e);
-            }
-        });
-
-        model.addAttribute("newEvents", newEvents);
-        model.addAttribute("oldEvents", oldEvents);
-
+        model.addAttribute("study", study);
+        model.addAttribute("newEvents", eventQueryService.getUpcomingEvents(study.getId(), now));
+        model.addAttribute("oldEvents", eventQueryService.getPastEvents(study.getId(), now, page));
         return "study/events";
     }
-}
-
-
-
-
-
-
-
-
-
-
-
-
 
+    @PostMapping("/events/{id}/enroll")
+    public String newEnrollment(@CurrentAccount Account account, @PathVariable String path, @PathVariable Long id) {
+        eventService.enroll(path, id, account);
+        return "redirect:/study/" + URLEncoder.encode(path, StandardCharsets.UTF_8) + "/events/" + id;
+    }
 
+    @PostMapping("/events/{id}/leave")
+    public String cancelEnrollment(@CurrentAccount Account account, @PathVariable String path, @PathVariable Long id) {
+        eventService.disenroll(path, id, account);
+        return "redirect:/study/" + URLEncoder.encode(path, StandardCharsets.UTF_8) + "/events/" + id;
+    }
+}
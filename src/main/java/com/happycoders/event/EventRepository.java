@@ -1,16 +1,38 @@
 package com.happycoders.event;
 
 import com.happycoders.domain.Event;
-import com.happycoders.domain.Study;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Transactional(readOnly = true)
 public interface EventRepository extends JpaRepository<Event, Long> {
 
-    @EntityGraph(value = "Event.withEnrollments", type = EntityGraph.EntityGraphType.LOAD)
-    List<Event> findByStudyOrderByStartDateTime(Study study);
+    /**
+     * 남은 자리가 있으면 acceptedCount 를 하나 올리고 1 을, 없으면 0 을 돌려준다.
+     * 조건과 증가를 UPDATE 한 번으로 하므로, 동시에 신청해도 그 모임의 행 lock 순서대로 limitOfEnrollments 명까지만 1 을 받는다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.acceptedCount = e.acceptedCount + 1 " +
+            "where e.id = :id and e.acceptedCount < e.limitOfEnrollments")
+    int takeSeat(@Param("id") Long id);
+
+    /**
+     * takeSeat 와 같지만 대기자가 있으면 자리를 잡지 않는다. 취소로 빈 자리는 새 신청자가 아니라 먼저 기다린 대기자에게 간다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.acceptedCount = e.acceptedCount + 1 " +
+            "where e.id = :id and e.acceptedCount < e.limitOfEnrollments " +
+            "and not exists (select n.id from Enrollment n where n.event = e and n.accepted = false)")
+    int takeSeatIfNoneWaiting(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.acceptedCount = e.acceptedCount - 1 where e.id = :id and e.acceptedCount > 0")
+    int releaseSeat(@Param("id") Long id);
+
 }
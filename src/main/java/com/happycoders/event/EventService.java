@@ -1,13 +1,20 @@
 package com.happycoders.event;
 
 import com.happycoders.domain.Account;
+import com.happycoders.domain.Enrollment;
 import com.happycoders.domain.Event;
+import com.happycoders.domain.EventType;
 import com.happycoders.domain.Study;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Transactional
@@ -16,6 +23,12 @@ public class EventService {
 
     private final EventRepository eventRepository;
 
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
     public Event createEvent(final Event event, final Study study, final Account account) {
         event.setCreatedBy(account);
         event.setCreateDateTime(LocalDateTime.now());
@@ -23,4 +36,70 @@ public class EventService {
         return eventRepository.save(event);
     }
 
+    /**
+     * 참가 신청. 선착순 모임은 자리가 남아 있고 먼저 기다리는 사람이 없으면 바로 확정하고,
+     * 그렇지 않거나 관리자 확인 모임이면 대기 상태로 둔다. 대기자는 enrolledAt 순서로 WaitlistPromoter 가 확정한다.
+     * <p>
+     * 자리는 EventRepository#takeSeatIfNoneWaiting 의 조건부 UPDATE 로 잡으므로 전체 lock 없이도 모집 인원을 넘지 않는다.
+     * 같은 사람이 동시에 두 번 신청하면 (event_id, account_id) unique 제약에 걸린 쪽의 transaction 이 잡은 자리와 함께 rollback 되고,
+     * 먼저 commit 된 신청을 돌려준다. 그래서 신청은 호출한 쪽의 transaction 과 별개인 transaction 에서 한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Enrollment enroll(String path, Long eventId, Account account) {
+        try {
+            return transactionTemplate.execute(status -> createEnrollment(path, eventId, account));
+        } catch (DataIntegrityViolationException e) {
+            return enrollmentRepository.findByEventIdAndAccountId(eventId, account.getId()).orElseThrow(() -> e);
+        }
+    }
+
+    private Enrollment createEnrollment(String path, Long eventId, Account account) {
+        Event event = getEvent(path, eventId);
+        if (!event.isEnrollmentOpen()) {
+            throw new IllegalStateException("참가 신청이 마감된 모임입니다.");
+        }
+        Optional<Enrollment> enrolled = enrollmentRepository.findByEventIdAndAccountId(eventId, account.getId());
+        if (enrolled.isPresent()) {
+            return enrolled.get();
+        }
+
+        Enrollment enrollment = new Enrollment();
+        enrollment.setEvent(event);
+        enrollment.setAccount(account);
+        enrollment.setAccepted(event.getEventType() == EventType.FCFS && eventRepository.takeSeatIfNoneWaiting(eventId) > 0);
+        // 자리를 잡은 뒤의 시각을 쓴다. 확정된 신청은 모두 첫 대기자보다 먼저 신청한 것이 되어, 대기 순서가 자리를 잡은 순서와 어긋나지 않는다.
+        enrollment.setEnrolledAt(LocalDateTime.now());
+        return enrollmentRepository.saveAndFlush(enrollment);
+    }
+
+    /**
+     * 참가 신청 취소. 확정된 신청이었으면 자리를 돌려준다.
+     * 선착순 모임이면 다음 대기자 확정과 알림은 이 요청에서 하지 않고, commit 된 뒤 WaitlistPromoter 가 모아서 처리한다.
+     */
+    public void disenroll(String path, Long eventId, Account account) {
+        Event event = getEvent(path, eventId);
+        if (!event.isEnrollmentOpen()) {
+            throw new IllegalStateException("참가 신청이 마감된 모임입니다.");
+        }
+        enrollmentRepository.findByEventIdAndAccountId(eventId, account.getId())
+                .filter(enrollment -> !enrollment.isAttended())
+                .ifPresent(enrollment -> {
+                    if (enrollmentRepository.deleteEnrollment(enrollment.getId()) > 0 && enrollment.isAccepted()) {
+                        eventRepository.releaseSeat(eventId);
+                        if (event.getEventType() == EventType.FCFS) {
+                            eventPublisher.publishEvent(new EnrollmentCanceledEvent(eventId));
+                        }
+                    }
+                });
+    }
+
+    private Event getEvent(String path, Long eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new IllegalArgumentException(eventId + "에 해당하는 모임이 없습니다."));
+        if (!event.getStudy().getPath().equals(path)) {
+            throw new IllegalArgumentException(path + "에 해당하는 모임이 없습니다.");
+        }
+        return event;
+    }
+
 }
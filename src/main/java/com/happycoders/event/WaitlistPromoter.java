@@ -0,0 +1,174 @@
+package com.happycoders.event;
+
+import com.happycoders.config.AppProperties;
+import com.happycoders.domain.Enrollment;
+import com.happycoders.mail.EmailMessage;
+import com.happycoders.mail.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import javax.annotation.PreDestroy;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * 선착순 모임의 빈 자리를 대기자에게 enrolledAt 순서로 넘겨주고 메일로 알린다.
+ * <p>
+ * - 참가 신청 취소가 commit 되면 모임 id 만 모아 두고, 취소한 사용자의 요청은 기다리지 않는다.
+ * - 모아 둔 모임을 주기적으로 한 번에 BATCH_SIZE 개씩 꺼내서 모임마다 transaction 하나로 처리한다.
+ *   같은 모임이 여러 번 취소되어도 한 번만 처리하고, 빈 자리 수만큼 대기자를 확정한다.
+ * - 자리는 EventRepository#takeSeat 의 조건부 UPDATE 로 잡으므로 모임 행 lock 순서대로 처리된다.
+ *   여러 서버가 같은 모임을 동시에 처리하거나 같은 모임을 두 번 처리해도 모집 인원을 넘거나 같은 사람을 두 번 확정하지 않는다.
+ * - 서버가 재시작되어 놓친 취소는 자리가 남았는데 대기자가 있는 모임을 가끔 찾아서 다시 처리한다.
+ * - 스케줄러는 스레드 하나로 모든 @Scheduled 작업을 돌리므로, 메일은 여기서 만들기만 하고 보내는 일은 메일 전용 스레드에 맡긴다.
+ *   메일 서버가 느려도 다음 확정이나 다른 주기 작업이 밀리지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class WaitlistPromoter {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int MAIL_QUEUE_CAPACITY = 1_000;
+
+    private final Set<Long> pendingEventIds = ConcurrentHashMap.newKeySet();
+
+    private final EventRepository eventRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EmailService emailService;
+
+    private final TemplateEngine templateEngine;
+
+    private final AppProperties appProperties;
+
+    // 큐가 가득 차면 스케줄러를 기다리게 하지 않고 그 메일은 버린다. (확정은 이미 commit 되었고 모임 화면에서 확인할 수 있다)
+    private final ThreadPoolExecutor mailExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAIL_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "waitlist-mail");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentCanceled(EnrollmentCanceledEvent event) {
+        pendingEventIds.add(event.getEventId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.waitlist.sweep-delay:600000}", initialDelayString = "${app.waitlist.sweep-delay:600000}")
+    public void sweep() {
+        pendingEventIds.addAll(enrollmentRepository.findEventIdsToPromote(LocalDateTime.now()));
+    }
+
+    /**
+     * 모아 둔 모임을 BATCH_SIZE 개까지 처리한다. 스케줄러와 다른 곳에서 동시에 불러도 한 번에 하나씩 처리한다.
+     */
+    @Scheduled(fixedDelayString = "${app.waitlist.promote-delay:1000}")
+    public synchronized void promotePending() {
+        List<Long> batch = new ArrayList<>();
+        Iterator<Long> iterator = pendingEventIds.iterator();
+        while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+
+        for (Long eventId : batch) {
+            List<Enrollment> promoted;
+            try {
+                promoted = promote(eventId);
+            } catch (RuntimeException e) {
+                log.error("failed to promote waitlist of event {}", eventId, e);
+                pendingEventIds.add(eventId);
+                continue;
+            }
+            // 확정은 이미 commit 되었으므로 메일을 보내지 못해도 다시 확정하지 않는다.
+            for (Enrollment enrollment : promoted) {
+                try {
+                    EmailMessage message = promotedEmail(enrollment);
+                    mailExecutor.execute(() -> send(message, enrollment.getId()));
+                } catch (RejectedExecutionException e) {
+                    log.error("mail queue is full. dropped notification of promoted enrollment {}", enrollment.getId());
+                } catch (RuntimeException e) {
+                    log.error("failed to notify promoted enrollment {}", enrollment.getId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 빈 자리가 없거나 대기자가 없을 때까지 가장 먼저 신청한 대기자를 확정한다. 확정한 신청을 돌려준다.
+     */
+    private List<Enrollment> promote(Long eventId) {
+        return transactionTemplate.execute(status -> {
+            List<Enrollment> promoted = new ArrayList<>();
+            while (eventRepository.takeSeat(eventId) > 0) {
+                List<Enrollment> waiting = enrollmentRepository.findWaiting(eventId, PageRequest.of(0, 1));
+                if (waiting.isEmpty()) {
+                    eventRepository.releaseSeat(eventId);
+                    break;
+                }
+                if (enrollmentRepository.accept(waiting.get(0).getId()) == 0) {
+                    // 그 사이에 취소된 대기자. 잡은 자리를 돌려주고 다음 대기자를 본다.
+                    eventRepository.releaseSeat(eventId);
+                    continue;
+                }
+                promoted.add(waiting.get(0));
+            }
+            return promoted;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mailExecutor.shutdown();
+    }
+
+    private void send(EmailMessage message, Long enrollmentId) {
+        try {
+            emailService.sendEmail(message);
+        } catch (RuntimeException e) {
+            log.error("failed to notify promoted enrollment {}", enrollmentId, e);
+        }
+    }
+
+    /**
+     * 확정한 transaction 에서 함께 읽은 모임, 스터디, 신청자로 메일을 만든다. 메일 스레드에서는 엔티티를 읽지 않는다.
+     */
+    private EmailMessage promotedEmail(Enrollment enrollment) {
+        String path = enrollment.getEvent().getStudy().getPath();
+        Context context = new Context();
+        context.setVariable("link", "/study/" + URLEncoder.encode(path, StandardCharsets.UTF_8) +
+                "/events/" + enrollment.getEvent().getId());
+        context.setVariable("nickname", enrollment.getAccount().getNickname());
+        context.setVariable("linkName", enrollment.getEvent().getTitle());
+        context.setVariable("message", "대기 중이던 '" + enrollment.getEvent().getTitle() + "' 모임 참가 신청이 확정되었습니다.");
+        context.setVariable("host", appProperties.getHost());
+
+        return EmailMessage.builder()
+                .to(enrollment.getAccount().getEmail())
+                .subject("HAPPY CODERS, '" + enrollment.getEvent().getTitle() + "' 모임 참가 신청 확정")
+                .message(templateEngine.process("mail/simple-link", context))
+                .build();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.happycoders.event.query;
+
+import com.happycoders.study.query.AccountSummary;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 모임 화면의 참가 신청 한 줄. 신청한 사용자는 화면에 필요한 값만 AccountSummary 로 가진다.
+ */
+@Getter
+public class EnrollmentView {
+
+    private final Long id;
+
+    private final LocalDateTime enrolledAt;
+
+    private final boolean accepted;
+
+    private final boolean attended;
+
+    private final AccountSummary account;
+
+    public EnrollmentView(Long id, LocalDateTime enrolledAt, boolean accepted, boolean attended,
+                          Long accountId, String nickname, String profileImage, String bio) {
+        this.id = id;
+        this.enrolledAt = enrolledAt;
+        this.accepted = accepted;
+        this.attended = attended;
+        this.account = new AccountSummary(accountId, nickname, profileImage, bio);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.happycoders.event.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 지난 모임 한 페이지. page 는 0 부터 시작한다.
+ */
+@Getter
+@AllArgsConstructor
+public class EventPage {
+
+    private final List<EventSummary> events;
+
+    private final int page;
+
+    private final boolean hasNext;
+
+    public boolean hasPrevious() {
+        return this.page > 0;
+    }
+
+}
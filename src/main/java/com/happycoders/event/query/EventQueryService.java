@@ -0,0 +1,105 @@
+package com.happycoders.event.query;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 스터디 모임 목록을 위한 조회 전용 서비스.
+ * <p>
+ * 다가오는 모임과 지난 모임을 DB 에서 나누어 읽고, 지난 모임은 페이지로 나눈다.
+ * 참가 신청은 엔티티로 읽지 않고 읽은 모임들의 신청 수만 group by 로 한 번에 센다.
+ * (study_id, startDateTime, endDateTime) 인덱스가 스터디별 조회와 정렬, 다가오는 모임과 지난 모임을 나누는 endDateTime 조건을 함께 받친다.
+ */
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Service
+public class EventQueryService {
+
+    public static final int PAST_EVENTS_PAGE_SIZE = 10;
+
+    private static final String SELECT_SUMMARY =
+            "select new com.happycoders.event.query.EventSummary(e.id, e.title, e.eventType, e.limitOfEnrollments, " +
+                    "e.acceptedCount, e.endEnrollmentDateTime, e.startDateTime, e.endDateTime) from Event e ";
+
+    private final EntityManager entityManager;
+
+    /**
+     * 아직 끝나지 않은 모임을 시작하는 순서로 모두 읽는다.
+     */
+    public List<EventSummary> getUpcomingEvents(Long studyId, LocalDateTime now) {
+        List<EventSummary> events = entityManager.createQuery(SELECT_SUMMARY +
+                "where e.study.id = :studyId and e.endDateTime >= :now order by e.startDateTime, e.id", EventSummary.class)
+                .setParameter("studyId", studyId)
+                .setParameter("now", now)
+                .getResultList();
+        fillEnrollmentCounts(events);
+        return events;
+    }
+
+    /**
+     * 끝난 모임을 최근에 시작한 순서로 page 번째 페이지만 읽는다. 전체 수를 세지 않고 size + 1 개를 읽어 다음 페이지가 있는지 안다.
+     */
+    public EventPage getPastEvents(Long studyId, LocalDateTime now, int page) {
+        int size = PAST_EVENTS_PAGE_SIZE;
+        int currentPage = Math.max(page, 0);
+        List<EventSummary> events = entityManager.createQuery(SELECT_SUMMARY +
+                "where e.study.id = :studyId and e.endDateTime < :now order by e.startDateTime desc, e.id desc", EventSummary.class)
+                .setParameter("studyId", studyId)
+                .setParameter("now", now)
+                .setFirstResult(currentPage * size)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = events.size() > size;
+        if (hasNext) {
+            events = events.subList(0, size);
+        }
+        fillEnrollmentCounts(events);
+        return new EventPage(events, currentPage, hasNext);
+    }
+
+    /**
+     * event/view : 모임과 모임장, 참가 신청과 신청자를 쿼리 두 번으로 읽는다. 신청자 수와 관계없이 쿼리 수는 같다.
+     * 다른 스터디의 모임이면 찾지 못한 것으로 본다.
+     */
+    public EventView getEventView(Long studyId, Long eventId) {
+        EventView event = entityManager.createQuery(
+                "select new com.happycoders.event.query.EventView(e.id, e.title, e.description, e.eventType, " +
+                        "e.limitOfEnrollments, e.acceptedCount, e.endEnrollmentDateTime, e.startDateTime, e.endDateTime, " +
+                        "a.id, a.nickname, a.profileImage, a.bio) " +
+                        "from Event e join e.createdBy a where e.id = :id and e.study.id = :studyId", EventView.class)
+                .setParameter("id", eventId)
+                .setParameter("studyId", studyId)
+                .getResultStream().findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(eventId + "에 해당하는 모임이 없습니다."));
+
+        event.setEnrollments(entityManager.createQuery(
+                "select new com.happycoders.event.query.EnrollmentView(n.id, n.enrolledAt, n.accepted, n.attended, " +
+                        "a.id, a.nickname, a.profileImage, a.bio) " +
+                        "from Enrollment n join n.account a where n.event.id = :id order by n.enrolledAt, n.id", EnrollmentView.class)
+                .setParameter("id", eventId)
+                .getResultList());
+        return event;
+    }
+
+    private void fillEnrollmentCounts(List<EventSummary> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> ids = events.stream().map(EventSummary::getId).collect(Collectors.toList());
+        Map<Long, Long> counts = entityManager.createQuery(
+                "select n.event.id, count(n) from Enrollment n where n.event.id in :ids group by n.event.id", Object[].class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+        events.forEach(e -> e.setEnrollmentCount(counts.getOrDefault(e.getId(), 0L)));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.happycoders.event.query;
+
+import com.happycoders.domain.EventType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 모임 목록 (study/events) 에 보여줄 모임 정보. 참가 신청 목록은 읽지 않고 신청 수만 가진다.
+ */
+@Getter
+@Setter
+public class EventSummary {
+
+    private final Long id;
+
+    private final String title;
+
+    private final EventType eventType;
+
+    private final Integer limitOfEnrollments;
+
+    private final int acceptedCount;
+
+    private final LocalDateTime endEnrollmentDateTime;
+
+    private final LocalDateTime startDateTime;
+
+    private final LocalDateTime endDateTime;
+
+    private long enrollmentCount;
+
+    public EventSummary(Long id, String title, EventType eventType, Integer limitOfEnrollments, int acceptedCount,
+                        LocalDateTime endEnrollmentDateTime, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        this.id = id;
+        this.title = title;
+        this.eventType = eventType;
+        this.limitOfEnrollments = limitOfEnrollments;
+        this.acceptedCount = acceptedCount;
+        this.endEnrollmentDateTime = endEnrollmentDateTime;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    public boolean isEnrollmentClosed() {
+        return !this.endEnrollmentDateTime.isAfter(LocalDateTime.now());
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.happycoders.event.query;
+
+import com.happycoders.account.UserAccount;
+import com.happycoders.domain.EventType;
+import com.happycoders.study.query.AccountSummary;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 모임 화면 (event/view) 을 그리기 위한 읽기 전용 모델.
+ * <p>
+ * 템플릿이 Event 엔티티와 같은 이름으로 쓸 수 있도록 같은 getter 와 판단 메소드를 가진다.
+ * 참가 신청과 신청자는 EventQueryService 가 한 번에 읽어서 넣어 준다.
+ */
+@Getter
+@Setter
+public class EventView {
+
+    private final Long id;
+
+    private final String title;
+
+    private final String description;
+
+    private final EventType eventType;
+
+    private final Integer limitOfEnrollments;
+
+    private final int acceptedCount;
+
+    private final LocalDateTime endEnrollmentDateTime;
+
+    private final LocalDateTime startDateTime;
+
+    private final LocalDateTime endDateTime;
+
+    private final AccountSummary createdBy;
+
+    private List<EnrollmentView> enrollments = List.of();
+
+    // account id -> 참가 신청. 템플릿이 신청 여부를 여러 번 물어도 목록을 다시 훑지 않는다.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Long, EnrollmentView> enrollmentIndex = Map.of();
+
+    // 참가 신청 id -> 대기 순번. 선착순 모임만 enrolledAt 순서로 확정하므로 선착순 모임에서만 센다.
+    // enrollments 는 enrolledAt 순서이므로 한 번 훑어서 센다.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Long, Integer> waitingNumbers = Map.of();
+
+    public EventView(Long id, String title, String description, EventType eventType, Integer limitOfEnrollments,
+                     int acceptedCount, LocalDateTime endEnrollmentDateTime, LocalDateTime startDateTime,
+                     LocalDateTime endDateTime, Long createdById, String createdByNickname,
+                     String createdByProfileImage, String createdByBio) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.eventType = eventType;
+        this.limitOfEnrollments = limitOfEnrollments;
+        this.acceptedCount = acceptedCount;
+        this.endEnrollmentDateTime = endEnrollmentDateTime;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+        this.createdBy = new AccountSummary(createdById, createdByNickname, createdByProfileImage, createdByBio);
+    }
+
+    public boolean isEnrollableFor(UserAccount userAccount) {
+        return isNotClosed() && !isAlreadyEnrolled(userAccount);
+    }
+
+    public boolean isDisenrollableFor(UserAccount userAccount) {
+        return isNotClosed() && isAlreadyEnrolled(userAccount);
+    }
+
+    public void setEnrollments(List<EnrollmentView> enrollments) {
+        Map<Long, EnrollmentView> index = new HashMap<>();
+        Map<Long, Integer> numbers = new HashMap<>();
+        for (EnrollmentView e : enrollments) {
+            index.put(e.getAccount().getId(), e);
+            if (this.eventType == EventType.FCFS && !e.isAccepted()) {
+                numbers.put(e.getId(), numbers.size() + 1);
+            }
+        }
+        this.enrollments = enrollments;
+        this.enrollmentIndex = index;
+        this.waitingNumbers = numbers;
+    }
+
+    // 선착순 모임에서 대기 중인 신청이 몇 번째로 기다리고 있는지. 확정된 신청이거나 관리자 확인 모임이면 0.
+    public int getWaitingNumber(EnrollmentView enrollment) {
+        return this.waitingNumbers.getOrDefault(enrollment.getId(), 0);
+    }
+
+    public boolean isAttended(UserAccount userAccount) {
+        EnrollmentView enrollment = this.enrollmentIndex.get(userAccount.getAccountId());
+        return enrollment != null && enrollment.isAttended();
+    }
+
+    // 관리자 확인 모임에서 관리자가 참가 신청을 수락하거나 취소할 수 있는지
+    public boolean isAcceptable(EnrollmentView enrollment) {
+        return this.eventType == EventType.CONFIRMATIVE && isNotClosed()
+                && !enrollment.isAccepted() && !enrollment.isAttended()
+                && (this.limitOfEnrollments == null || this.acceptedCount < this.limitOfEnrollments);
+    }
+
+    public boolean isRejectable(EnrollmentView enrollment) {
+        return this.eventType == EventType.CONFIRMATIVE && isNotClosed()
+                && enrollment.isAccepted() && !enrollment.isAttended();
+    }
+
+    private boolean isNotClosed() {
+        return this.endEnrollmentDateTime.isAfter(LocalDateTime.now());
+    }
+
+    private boolean isAlreadyEnrolled(UserAccount userAccount) {
+        return this.enrollmentIndex.containsKey(userAccount.getAccountId());
+    }
+
+}
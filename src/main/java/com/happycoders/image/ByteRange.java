@@ -0,0 +1,68 @@
+package com.happycoders.image;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Range 요청 헤더의 단일 범위 (start, end 모두 포함).
+ * 여러 범위를 한 번에 요청하는 경우(multipart/byteranges)는 지원하지 않고 전체 파일을 내려준다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+
+    private final long end;
+
+    static ByteRange full(long length) {
+        return new ByteRange(0, length - 1);
+    }
+
+    long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return 만족할 수 없는 범위라면 empty
+     */
+    static Optional<ByteRange> parse(String header, long length) {
+        if (!header.startsWith(BYTES_UNIT) || header.contains(",")) {
+            return Optional.of(full(length));
+        }
+
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return Optional.of(full(length));
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) { // bytes=-500 : 마지막 500 바이트
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return Optional.empty();
+                }
+                return Optional.of(new ByteRange(Math.max(0, length - suffix), length - 1));
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || start > end) {
+                return Optional.empty();
+            }
+            return Optional.of(new ByteRange(start, end));
+        } catch (NumberFormatException e) {
+            return Optional.of(full(length));
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.happycoders.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * 저장소의 이미지를 내려준다.
+ * <p>
+ * image key 는 내용의 해시이므로 같은 url 의 내용은 절대 바뀌지 않는다.
+ * 그래서 해시를 그대로 strong ETag 로 쓰고, 브라우저가 1년 동안 다시 묻지 않도록 immutable 로 캐시시킨다.
+ * 본문은 Tomcat 의 sendfile 을 쓸 수 있으면 sendfile 로, 아니면 FileChannel.transferTo 로 보낸다.
+ */
+@RequiredArgsConstructor
+@Controller
+public class ImageController {
+
+    static final String IMAGES = "/images";
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStore imageStore;
+
+    private final ThumbnailService thumbnailService;
+
+    @GetMapping(IMAGES + "/{key:[0-9a-f]{64}}")
+    public void image(@PathVariable String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> image = imageStore.find(key);
+        if (image.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        serve(image.get(), "\"" + key + "\"", CACHE_CONTROL, request, response);
+    }
+
+    @GetMapping(IMAGES + "/{key:[0-9a-f]{64}}/{width:[0-9]+}")
+    public void rendition(@PathVariable String key, @PathVariable int width,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ImageRendition> rendition = ImageRendition.ofWidth(width);
+        Optional<Path> original = imageStore.find(key);
+        if (rendition.isEmpty() || original.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Optional<Path> resized = imageStore.find(key, rendition.get());
+        if (resized.isPresent()) {
+            serve(resized.get(), "\"" + key + "-" + width + "\"", CACHE_CONTROL, request, response);
+            return;
+        }
+
+        // 아직 썸네일이 없다면 (작업 대기 중이거나 큐가 넘쳐 버려진 경우) 다시 만들도록 하고, 이번에는 원본을 보낸다.
+        // 원본은 캐시하지 않도록 해서 다음 요청 때 썸네일을 받아가게 한다.
+        thumbnailService.generate(key, ImageRendition.AVATARS.contains(rendition.get()) ? ImageRendition.AVATARS : ImageRendition.BANNERS);
+        serve(original.get(), "\"" + key + "\"", "no-cache", request, response);
+    }
+
+    void serve(Path file, String etag, String cacheControl, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        ByteRange range = ByteRange.full(length);
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            Optional<ByteRange> requested = ByteRange.parse(rangeHeader, length);
+            if (requested.isEmpty()) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            range = requested.get();
+            if (range.getLength() != length) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.getStart() + "-" + range.getEnd() + "/" + length);
+            }
+        }
+
+        response.setContentType(contentTypeOf(file));
+        response.setContentLengthLong(range.getLength());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat 이 커널의 sendfile 로 파일을 소켓에 바로 보낸다. (zero-copy)
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, range.getStart());
+            request.setAttribute(SENDFILE_END, range.getEnd() + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.getStart();
+            long remaining = range.getLength();
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String contentTypeOf(Path file) throws IOException {
+        byte[] header = new byte[ImageType.HEADER_LENGTH];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        return ImageType.detect(header, read)
+                .map(ImageType::getContentType)
+                .orElse("application/octet-stream");
+    }
+
+}
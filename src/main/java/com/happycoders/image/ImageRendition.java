@@ -0,0 +1,40 @@
+package com.happycoders.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 원본 이미지에서 미리 만들어 두는 고정 크기 이미지.
+ * 화면에 24px 로 보여줄 프로필 사진을 원본 그대로 내려보내지 않도록 화면에서 쓰는 크기별로 만들어 둔다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImageRendition {
+
+    AVATAR_24(24, "png"),
+    AVATAR_64(64, "png"),
+    AVATAR_128(128, "png"),
+    BANNER_640(640, "jpg"),
+    BANNER_1300(1300, "jpg");
+
+    public static final Set<ImageRendition> AVATARS = EnumSet.of(AVATAR_24, AVATAR_64, AVATAR_128);
+
+    public static final Set<ImageRendition> BANNERS = EnumSet.of(BANNER_640, BANNER_1300);
+
+    private final int width;
+
+    // ImageIO 에 넘길 format 이름. 배너는 투명도가 필요 없으므로 jpg 로 더 작게 만든다.
+    private final String format;
+
+    public static Optional<ImageRendition> ofWidth(int width) {
+        return Arrays.stream(values())
+                .filter(r -> r.width == width)
+                .findFirst();
+    }
+
+}
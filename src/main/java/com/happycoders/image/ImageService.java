@@ -0,0 +1,143 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@Service
+public class ImageService {
+
+    private static final String DATA_URL_PREFIX = "data:image";
+
+    private static final String BASE64_MARKER = ";base64,";
+
+    private final ImageStore imageStore;
+
+    private final ThumbnailService thumbnailService;
+
+    private final ImageProperties imageProperties;
+
+    /**
+     * 프로필 이미지를 저장하고, 화면에서 쓰는 크기의 썸네일 생성을 예약한다.
+     */
+    public String saveProfileImage(String value) {
+        String key = resolveImageKey(value);
+        thumbnailService.generate(key, ImageRendition.AVATARS);
+        return key;
+    }
+
+    public String saveBannerImage(String value) {
+        String key = resolveImageKey(value);
+        thumbnailService.generate(key, ImageRendition.BANNERS);
+        return key;
+    }
+
+    /**
+     * multipart 로 올라온 이미지를 저장소에 넣고 image key 를 돌려준다.
+     * <p>
+     * 업로드 파일은 Tomcat 이 이미 임시 파일로 받아 두었으므로 스트림으로 복사만 하고,
+     * 이미지 헤더만 읽어서 형식과 크기를 검사한다. 픽셀 전체를 디코딩하는 일은 썸네일 worker 가 한다.
+     */
+    public String upload(MultipartFile file, Set<ImageRendition> renditions) {
+        if (file.isEmpty() || file.getSize() > imageProperties.getMaxUploadSize().toBytes()) {
+            throw new IllegalArgumentException("이미지 파일은 " + imageProperties.getMaxUploadSize().toMegabytes() + "MB 까지 올릴 수 있습니다.");
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            String key = imageStore.store(in, this::validate);
+            thumbnailService.generate(key, renditions);
+            return key;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void validate(Path file) throws IOException {
+        byte[] header = new byte[ImageType.HEADER_LENGTH];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        if (ImageType.detect(header, read).isEmpty()) {
+            throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+        }
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // 이미지 헤더만 읽으므로 픽셀 데이터를 메모리에 올리지 않는다.
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > imageProperties.getMaxPixels()) {
+                    throw new IllegalArgumentException("이미지 해상도가 너무 큽니다.");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("이미지를 읽을 수 없습니다.", e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * form 으로 넘어온 이미지 값을 엔티티에 저장할 image key 로 바꾼다.
+     * <p>
+     * - 빈 값 : 이미지를 지운다. (null)
+     * - image key : 이미 저장소에 있는 이미지를 그대로 사용한다.
+     * - data url : cropper 가 만든 base64 이미지를 디코딩해서 저장소에 넣고 key 를 돌려준다.
+     *   multipart 업로드와 같이 형식과 픽셀 수를 검사하므로, 작은 data url 로 거대한 이미지를 썸네일 worker 에 넘길 수 없다.
+     */
+    public String resolveImageKey(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+
+        if (ImageStore.isKey(value)) {
+            if (!imageStore.exists(value)) {
+                throw new IllegalArgumentException(value + "에 해당하는 이미지가 없습니다.");
+            }
+            return value;
+        }
+
+        if (value.startsWith(DATA_URL_PREFIX)) {
+            return imageStore.store(new ByteArrayInputStream(decodeDataUrl(value)), this::validate);
+        }
+
+        throw new IllegalArgumentException("지원하지 않는 이미지 값입니다.");
+    }
+
+    private byte[] decodeDataUrl(String dataUrl) {
+        int marker = dataUrl.indexOf(BASE64_MARKER);
+        if (marker < 0) {
+            throw new IllegalArgumentException("base64 로 인코딩된 이미지가 아닙니다.");
+        }
+
+        try {
+            return Base64.getDecoder().decode(dataUrl.substring(marker + BASE64_MARKER.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("base64 로 인코딩된 이미지가 아닙니다.", e);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 이미지 바이너리를 로컬 디스크에 보관하는 content-addressed 저장소.
+ * <p>
+ * 파일 이름은 내용의 SHA-256 해시이므로 같은 이미지는 한 번만 저장되고, 한 번 저장된 파일은 절대 바뀌지 않는다.
+ * 엔티티는 data url 대신 이 해시(image key)만 들고 있으면 된다.
+ * 파일은 {root}/{해시 앞 2글자}/{해시} 에 저장해서 한 디렉토리에 파일이 몰리지 않도록 한다.
+ */
+@Component
+public class ImageStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final Path root;
+
+    public ImageStore(ImageProperties imageProperties) {
+        this.root = Paths.get(imageProperties.getDir()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("이미지 저장소 디렉토리를 만들 수 없습니다. " + root, e);
+        }
+    }
+
+    public static boolean isKey(String value) {
+        return value != null && KEY_PATTERN.matcher(value).matches();
+    }
+
+    public String store(byte[] bytes) {
+        String key = toHex(newDigest().digest(bytes));
+        Path target = pathOf(key);
+        if (Files.exists(target)) {
+            return key; // 같은 내용의 이미지가 이미 있다.
+        }
+
+        try {
+            Path temp = createTempFile();
+            Files.write(temp, bytes);
+            moveIntoPlace(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return key;
+    }
+
+    /**
+     * 스트림을 임시 파일로 복사하면서 해시를 계산하고, 검증을 통과하면 해시 이름으로 옮긴다.
+     * 이미지 전체를 메모리에 올리지 않는다.
+     */
+    public String store(InputStream inputStream, ImageValidator validator) {
+        try {
+            Path temp = createTempFile();
+            MessageDigest digest = newDigest();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                inputStream.transferTo(out);
+            }
+
+            try {
+                validator.validate(temp);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+
+            String key = toHex(digest.digest());
+            Path target = pathOf(key);
+            if (Files.exists(target)) {
+                Files.deleteIfExists(temp);
+            } else {
+                moveIntoPlace(temp, target);
+            }
+            return key;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 원본 이미지로부터 만든 크기별 이미지를 저장한다. 원본과 같은 디렉토리에 {해시}_{너비} 이름으로 둔다.
+     */
+    public void store(String key, ImageRendition rendition, ImageWriter writer) {
+        try {
+            Path temp = createTempFile();
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            moveIntoPlace(temp, pathOf(key, rendition));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean exists(String key, ImageRendition rendition) {
+        return isKey(key) && Files.isRegularFile(pathOf(key, rendition));
+    }
+
+    public Optional<Path> find(String key, ImageRendition rendition) {
+        return exists(key, rendition) ? Optional.of(pathOf(key, rendition)) : Optional.empty();
+    }
+
+    public boolean exists(String key) {
+        return isKey(key) && Files.isRegularFile(pathOf(key));
+    }
+
+    public Optional<Path> find(String key) {
+        return exists(key) ? Optional.of(pathOf(key)) : Optional.empty();
+    }
+
+    Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private Path pathOf(String key, ImageRendition rendition) {
+        return root.resolve(key.substring(0, 2)).resolve(key + "_" + rendition.getWidth());
+    }
+
+    private Path createTempFile() throws IOException {
+        Path tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+        return Files.createTempFile(tempDir, "upload-", ".part");
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            // 같은 파일 시스템 안에서의 atomic move 이므로 읽는 쪽은 완성된 파일만 보게 된다.
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // 같은 이미지가 동시에 업로드된 경우. 내용이 같으므로 먼저 들어온 파일을 그대로 쓴다.
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ImageWriter {
+
+        void write(OutputStream out) throws IOException;
+
+    }
+
+    @FunctionalInterface
+    public interface ImageValidator {
+
+        void validate(Path file) throws IOException;
+
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.happycoders.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * 저장소에 보관할 수 있는 이미지 형식.
+ * 파일 확장자나 클라이언트가 보낸 content type 대신 파일 앞부분의 매직 넘버로 형식을 판별한다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImageType {
+
+    PNG("image/png", new int[]{0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A}),
+    JPEG("image/jpeg", new int[]{0xFF, 0xD8, 0xFF}),
+    GIF("image/gif", new int[]{0x47, 0x49, 0x46, 0x38});
+
+    // 형식 판별에 필요한 최대 헤더 길이
+    public static final int HEADER_LENGTH = 8;
+
+    private final String contentType;
+
+    private final int[] magic;
+
+    public static Optional<ImageType> detect(byte[] header, int length) {
+        for (ImageType type : values()) {
+            if (type.matches(header, length)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
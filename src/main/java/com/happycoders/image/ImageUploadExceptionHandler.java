@@ -0,0 +1,28 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.util.Map;
+
+/**
+ * multipart 요청이 spring.servlet.multipart 의 크기 제한을 넘으면 handler 를 찾기 전에 예외가 나므로,
+ * 업로드 endpoint 의 다른 실패와 같은 JSON 400 응답으로 바꿔준다. multipart 는 이미지 업로드에서만 쓴다.
+ */
+@RequiredArgsConstructor
+@RestControllerAdvice
+public class ImageUploadExceptionHandler {
+
+    private final ImageProperties imageProperties;
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException e) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", "이미지 파일은 " + imageProperties.getMaxUploadSize().toMegabytes() + "MB 까지 올릴 수 있습니다."));
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 원본 이미지로부터 {@link ImageRendition} 크기의 이미지를 백그라운드에서 만든다.
+ * <p>
+ * 리사이즈는 CPU 와 메모리를 많이 쓰므로 요청 스레드에서 하지 않고, 크기가 고정된 작업 큐를 가진 worker pool 에서 처리한다.
+ * 큐가 가득 차면 작업을 버리고, 해당 이미지가 처음 요청될 때 다시 만들도록 한다. (ImageController 참고)
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private final ImageStore imageStore;
+
+    private final ThreadPoolExecutor executor;
+
+    // 같은 크기의 이미지를 만드는 작업이 큐에 여러 번 쌓이지 않도록 진행 중인 (image key, 너비) 를 기억한다.
+    // 같은 이미지라도 다른 크기를 요청하면 따로 만든다.
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ThumbnailService(ImageStore imageStore, ImageProperties imageProperties) {
+        this(imageStore, new ThreadPoolExecutor(
+                imageProperties.getResizeWorkers(), imageProperties.getResizeWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(imageProperties.getResizeQueueCapacity()),
+                new ResizeThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    ThumbnailService(ImageStore imageStore, ThreadPoolExecutor executor) {
+        this.imageStore = imageStore;
+        this.executor = executor;
+    }
+
+    public void generate(String key, Set<ImageRendition> renditions) {
+        if (key == null) {
+            return;
+        }
+
+        Set<ImageRendition> claimed = EnumSet.noneOf(ImageRendition.class);
+        for (ImageRendition rendition : renditions) {
+            if (inFlight.add(inFlightKey(key, rendition))) {
+                claimed.add(rendition);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    resize(key, claimed);
+                } finally {
+                    release(key, claimed);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release(key, claimed);
+            log.warn("thumbnail queue is full. skip resizing image {}", key);
+        }
+    }
+
+    private void release(String key, Set<ImageRendition> renditions) {
+        renditions.forEach(rendition -> inFlight.remove(inFlightKey(key, rendition)));
+    }
+
+    private static String inFlightKey(String key, ImageRendition rendition) {
+        return key + "_" + rendition.getWidth();
+    }
+
+    private void resize(String key, Set<ImageRendition> renditions) {
+        Path original = imageStore.find(key).orElse(null);
+        if (original == null) {
+            return;
+        }
+
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                log.warn("unsupported image format. key: {}", key);
+                return;
+            }
+
+            for (ImageRendition rendition : renditions) {
+                if (imageStore.exists(key, rendition)) {
+                    continue;
+                }
+                BufferedImage resized = scaleToWidth(source, rendition);
+                imageStore.store(key, rendition, out -> ImageIO.write(resized, rendition.getFormat(), out));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("failed to resize image " + key, e);
+        }
+    }
+
+    /**
+     * 한 번에 크게 줄이면 bilinear 보간으로는 계단 현상이 생기므로, 목표 크기에 가까워질 때까지 절반씩 줄인다.
+     */
+    private BufferedImage scaleToWidth(BufferedImage source, ImageRendition rendition) {
+        int targetWidth = Math.min(rendition.getWidth(), source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        int type = "png".equals(rendition.getFormat()) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height, type);
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                graphics.setColor(Color.WHITE); // jpg 는 투명도가 없으므로 흰 배경을 깐다.
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class ResizeThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "image-resize-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.happycoders.infra.jpa;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.LockOptions;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 한 요청 안에서 이미 읽은 entity 를 다시 읽지 않도록 한다.
+ * <p>
+ * - open-in-view 를 끄고 있으므로 controller 가 service 에서 받은 entity 는 detached 상태다.
+ *   service 가 그 entity 를 고칠 때 id 로 다시 조회하지 않고, {@link #attach(Object)} 로 현재 transaction 에 SELECT 없이 다시 붙인다.
+ * - 요청 중에 읽은 aggregate 는 request attribute 에 (type, id) 로 기억해 두고, 같은 요청에서 다시 필요하면 그것을 쓴다.
+ *   요청 밖 (스케줄러, 테스트에서 service 를 바로 부를 때) 에서는 기억하지 않는다.
+ */
+@RequiredArgsConstructor
+@Component
+public class RequestEntityContext {
+
+    private static final String ENTITIES = RequestEntityContext.class.getName() + ".entities";
+
+    private final EntityManager entityManager;
+
+    public <T> Optional<T> find(Class<T> type, Object id) {
+        Map<EntityId, Object> entities = entities(false);
+        if (entities == null || id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(type.cast(entities.get(new EntityId(type, id))));
+    }
+
+    public <T> T remember(T entity) {
+        Map<EntityId, Object> entities = entities(true);
+        if (entities != null && entity != null) {
+            Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+            entities.put(new EntityId(entity.getClass(), id), entity);
+        }
+        return entity;
+    }
+
+    /**
+     * detached entity 를 현재 transaction 의 영속성 컨텍스트에 SELECT 없이 다시 붙여서 돌려준다.
+     * 이미 같은 id 의 entity 가 있으면 그것을 돌려준다. detached 상태에서 고친 내용이 없어야 한다.
+     */
+    public <T> T attach(T entity) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("transaction 안에서만 entity 를 다시 붙일 수 있습니다.");
+        }
+        if (entityManager.contains(entity)) {
+            return entity;
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Serializable id = (Serializable) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        EntityKey key = session.generateEntityKey(id, session.getEntityPersister(null, entity));
+        @SuppressWarnings("unchecked")
+        T managed = (T) session.getPersistenceContext().getEntity(key);
+        if (managed != null) {
+            return managed;
+        }
+
+        session.buildLockRequest(LockOptions.NONE).lock(entity);
+        return entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<EntityId, Object> entities(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<EntityId, Object> entities = (Map<EntityId, Object>) attributes.getAttribute(ENTITIES, RequestAttributes.SCOPE_REQUEST);
+        if (entities == null && create) {
+            entities = new HashMap<>();
+            attributes.setAttribute(ENTITIES, entities, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entities;
+    }
+
+    private static class EntityId {
+
+        private final Class<?> type;
+
+        private final Object id;
+
+        private EntityId(Class<?> type, Object id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EntityId)) return false;
+            EntityId other = (EntityId) o;
+            return type.equals(other.type) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + id.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.happycoders.infra.referencedata;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 기준 데이터가 새로 들어갔을 때 발행된다. 메모리에 데이터를 들고 있는 곳은 이 이벤트를 받아 다시 읽는다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReferenceDataImportedEvent {
+
+    private final String name;
+
+    private final int count;
+
+}
@@ -0,0 +1,92 @@
+package com.happycoders.infra.referencedata;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 등록된 {@link ReferenceDataSet} 을 DB 에 넣는다.
+ * <p>
+ * - jar 안에서도 읽을 수 있도록 파일 경로가 아니라 classpath 의 stream 으로 한 줄씩 읽는다.
+ * - 이미 있는 행은 건너뛰므로 여러 번 실행해도 같은 결과가 된다.
+ * - hibernate.jdbc.batch_size 만큼 모아서 INSERT 하고, 그때마다 영속성 컨텍스트를 비워서 메모리를 일정하게 유지한다.
+ * - 애플리케이션 기동을 막지 않도록 ApplicationReadyEvent 이후에 실행한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ReferenceDataImporter {
+
+    private static final int BATCH_SIZE = 50;
+
+    private final List<ReferenceDataSet<?>> dataSets;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importAll() {
+        dataSets.forEach(this::importDataSet);
+    }
+
+    public <T> int importDataSet(ReferenceDataSet<T> dataSet) {
+        Integer imported = transactionTemplate.execute(status -> insertMissingRows(dataSet));
+        int count = imported != null ? imported : 0;
+        if (count > 0) {
+            log.info("imported {} rows of {}", count, dataSet.getName());
+            eventPublisher.publishEvent(new ReferenceDataImportedEvent(dataSet.getName(), count));
+        }
+        return count;
+    }
+
+    private <T> int insertMissingRows(ReferenceDataSet<T> dataSet) {
+        dataSet.prepare(entityManager);
+        Set<String> existingKeys = dataSet.existingKeys(entityManager);
+        ClassPathResource resource = new ClassPathResource(dataSet.getResource());
+
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                T entity = dataSet.parse(line.split(",", -1));
+                if (!existingKeys.add(dataSet.keyOf(entity))) {
+                    continue;
+                }
+
+                entityManager.persist(entity);
+                if (++count % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to read " + dataSet.getResource(), e);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+
+}
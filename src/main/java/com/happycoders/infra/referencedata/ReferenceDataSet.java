@@ -0,0 +1,31 @@
+package com.happycoders.infra.referencedata;
+
+import javax.persistence.EntityManager;
+import java.util.Set;
+
+/**
+ * classpath 의 csv 파일로 넣는 기준 데이터 (지역, 기본 태그 등).
+ * 빈으로 등록하면 {@link ReferenceDataImporter} 가 애플리케이션이 뜬 뒤에 DB 에 없는 행만 넣는다.
+ */
+public interface ReferenceDataSet<T> {
+
+    // 로그와 이벤트에 쓰는 이름
+    String getName();
+
+    // classpath 기준 csv 파일 경로
+    String getResource();
+
+    // csv 한 줄 (콤마로 나눈 값) 을 엔티티로 만든다.
+    T parse(String[] columns);
+
+    // 이미 들어있는지 비교할 때 쓰는 값
+    String keyOf(T entity);
+
+    // DB 에 이미 있는 데이터의 key
+    Set<String> existingKeys(EntityManager entityManager);
+
+    // 행을 넣기 전에 같은 transaction 에서 호출된다. id sequence 를 맞추는 일 등에 쓴다.
+    default void prepare(EntityManager entityManager) {
+    }
+
+}
@@ -1,20 +1,22 @@
 package com.happycoders.settings;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.happycoders.account.AccountService;
 import com.happycoders.account.CurrentAccount;
 import com.happycoders.domain.Account;
 import com.happycoders.domain.Tag;
 import com.happycoders.domain.Zone;
+import com.happycoders.image.ImageRendition;
+import com.happycoders.image.ImageService;
 import com.happycoders.settings.form.*;
 import com.happycoders.settings.validator.NicknameValidator;
 import com.happycoders.settings.validator.PasswordFormValidator;
 import com.happycoders.tag.TagForm;
-import com.happycoders.tag.TagRepository;
+import com.happycoders.tag.TagController;
 import com.happycoders.tag.TagService;
+import com.happycoders.tag.TagsForm;
 import com.happycoders.zone.ZoneForm;
-import com.happycoders.zone.ZoneRepository;
+import com.happycoders.zone.ZoneRegistry;
+import com.happycoders.zone.ZonesForm;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
@@ -24,11 +26,11 @@ import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -58,15 +60,13 @@ public class SettingsController {
 
     private final ModelMapper modelMapper;
 
-    private final ObjectMapper objectMapper;
-
     private final NicknameValidator nicknameValidator;
 
     private final TagService tagService;
 
-    private final TagRepository tagRepository;
+    private final ZoneRegistry zoneRegistry;
 
-    private final ZoneRepository zoneRepository;
+    private final ImageService imageService;
 
     //Validation을 위해 InitBinder를 사용한다.
 
@@ -112,6 +112,18 @@ public class SettingsController {
         return "redirect:/" + SETTINGS + PROFILE;
     }
 
+    // cropper 로 자른 이미지를 multipart 로 먼저 올리고, 돌려받은 image key 를 프로필 form 으로 저장한다.
+    @PostMapping(PROFILE + "/image")
+    @ResponseBody
+    public ResponseEntity uploadProfileImage(@CurrentAccount Account account, @RequestParam MultipartFile image) {
+        try {
+            String key = imageService.upload(image, ImageRendition.AVATARS);
+            return ResponseEntity.ok(Map.of("image", key));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     //TODO : 비밀번호 다시 한 번 재 확인 후 비밀번호 변경 페이지로 이동 (패스워드 수정 강의에 있는 메모 확인 -> matchers 사용)
 //    @GetMapping (SETTINGS_CHECK_PASSWORD_URL)
 //    public String checkPasswordForm (@CurrentUser Account account, Model model) {
@@ -195,21 +207,28 @@ public class SettingsController {
     }
 
     @GetMapping(TAGS)
-    public String updateTags(@CurrentAccount Account account, Model model) throws JsonProcessingException {
+    public String updateTags(@CurrentAccount Account account, Model model) {
         model.addAttribute(account);
 
         Set<Tag> tags = accountService.getTags(account);
         model.addAttribute("tags", tags.stream().map(Tag::getTitle).collect(Collectors.toList()));
 
-        List<String> allTags = tagRepository.findAll().stream()
-                .map(Tag::getTitle).collect(Collectors.toList());
-
-        model.addAttribute("whiteList", objectMapper.writeValueAsString(allTags));
+        // 전체 태그 목록은 페이지에 넣지 않고, 입력할 때마다 자동완성 url 에서 받는다.
+        model.addAttribute("autocompleteUrl", TagController.AUTOCOMPLETE_URL);
 
         return SETTINGS + TAGS;
     }
 
     //AJAX
+    // 화면에서 여러 번 바꾼 태그를 모아서 한 번에 보낸다.
+    @PostMapping(TAGS)
+    @ResponseBody
+    public ResponseEntity updateTags(@CurrentAccount Account account, @RequestBody TagsForm tagsForm) {
+        List<Tag> tags = tagService.findOrCreateAll(tagsForm.getTagTitles());
+        accountService.updateTags(account, new HashSet<>(tags));
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping(TAGS + "/add")
     @ResponseBody
     public ResponseEntity addTag(@CurrentAccount Account account, @RequestBody TagForm tagForm) {
@@ -227,7 +246,7 @@ public class SettingsController {
     }
 
     @GetMapping(ZONES)
-    public String updateZonesForm(@CurrentAccount Account account, Model model) throws JsonProcessingException {
+    public String updateZonesForm(@CurrentAccount Account account, Model model) {
         model.addAttribute(account);
 //        Set<Zone> zones = accountService.getZones(account);
 //       // System.out.println("zones stream : " + zones.stream().map(Zone::toString).collect(Collectors.toList()));
@@ -243,16 +262,27 @@ public class SettingsController {
         Set<Zone> zones = accountService.getZones(account);
         model.addAttribute("zones", zones.stream().map(Zone::toString).collect(Collectors.toList()));
 
-        List<String> allZones = zoneRepository.findAll().stream().map(Zone::toString).collect(Collectors.toList());
-        model.addAttribute("whiteList", objectMapper.writeValueAsString(allZones));
+        model.addAttribute("whiteList", zoneRegistry.getWhitelist());
 
         return SETTINGS + ZONES;
     }
 
+    @PostMapping(ZONES)
+    @ResponseBody
+    public ResponseEntity updateZones(@CurrentAccount Account account, @RequestBody ZonesForm zonesForm) {
+        Optional<Set<Zone>> zones = zoneRegistry.findAllByName(zonesForm.getZoneNames());
+
+        if (zones.isEmpty())
+            return ResponseEntity.badRequest().build();
+
+        accountService.updateZones(account, zones.get());
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping(ZONES + "/add")
     @ResponseBody
     public ResponseEntity addZone(@CurrentAccount Account account, @RequestBody ZoneForm zoneForm) {
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneRegistry.findByName(zoneForm.getZoneName()).orElse(null);
 
         if (zone == null)
             return ResponseEntity.badRequest().build();
@@ -264,7 +294,7 @@ public class SettingsController {
     @PostMapping(ZONES + "/remove")
     @ResponseBody
     public ResponseEntity removeZone(@CurrentAccount Account account, @RequestBody ZoneForm zoneForm) {
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneRegistry.findByName(zoneForm.getZoneName()).orElse(null);
 
         if (zone == null)
             return ResponseEntity.badRequest().build();
@@ -0,0 +1,25 @@
+package com.happycoders.study;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 스터디의 검색에 쓰이는 내용 (경로, 제목, 소개, 공개/종료 상태) 이 바뀌었거나 스터디가 삭제되었을 때 발행된다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StudyChangedEvent {
+
+    private final Long studyId;
+
+    private final boolean removed;
+
+    public static StudyChangedEvent updated(Long studyId) {
+        return new StudyChangedEvent(studyId, false);
+    }
+
+    public static StudyChangedEvent removed(Long studyId) {
+        return new StudyChangedEvent(studyId, true);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.happycoders.study;
+
+import com.happycoders.domain.Study;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 상세 소개를 study_content 테이블로 옮기기 전의 DB 에 남아 있는 study.full_description 값을 옮긴다.
+ * <p>
+ * ddl-auto: update 는 컬럼을 지우지 않으므로 예전 DB 에는 full_description 컬럼과 값이 그대로 남아 있다.
+ * 기동할 때 그 컬럼이 있으면 아직 StudyContent 가 없는 스터디의 값을 StudyContent 로 옮기고 예전 값은 비운다.
+ * 옮긴 행은 다시 읽지 않으므로 여러 번 실행해도 같은 결과이고, 새로 만든 DB 에서는 아무 일도 하지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class StudyContentMigration {
+
+    private static final int CHUNK_SIZE = 100;
+
+    // hibernate.globally_quoted_identifiers 를 켜 두었으므로 native SQL 에서도 이름을 따옴표로 감싼다.
+    private static final String SELECT_LEGACY =
+            "select \"id\", \"full_description\" from \"study\" " +
+                    "where \"full_description\" is not null and \"content_id\" is null order by \"id\"";
+
+    private static final String CLEAR_LEGACY =
+            "update \"study\" set \"full_description\" = null where \"id\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Order(0) // 다른 기동 작업이 스터디를 읽기 전에 옮긴다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+
+        int migrated = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> migrateChunk());
+            migrated += chunk;
+        } while (chunk == CHUNK_SIZE);
+
+        if (migrated > 0) {
+            log.info("moved full description of {} studies into study_content", migrated);
+        }
+    }
+
+    private int migrateChunk() {
+        Map<Long, String> descriptions = jdbcTemplate.query(SELECT_LEGACY, rs -> {
+            Map<Long, String> chunk = new LinkedHashMap<>();
+            while (chunk.size() < CHUNK_SIZE && rs.next()) {
+                chunk.put(rs.getLong(1), rs.getString(2));
+            }
+            return chunk;
+        });
+
+        descriptions.forEach((id, fullDescription) -> {
+            Study study = entityManager.find(Study.class, id);
+            study.setFullDescription(fullDescription);
+            entityManager.flush(); // StudyContent 를 저장하고 content_id 를 채운 뒤에 예전 값을 비운다.
+            jdbcTemplate.update(CLEAR_LEGACY, id);
+        });
+        entityManager.clear();
+        return descriptions.size();
+    }
+
+    private boolean hasLegacyColumn() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            ResultSet columns = connection.getMetaData().getColumns(null, null, "study", "full_description");
+            try {
+                return columns.next();
+            } finally {
+                JdbcUtils.closeResultSet(columns);
+            }
+        }));
+    }
+
+}
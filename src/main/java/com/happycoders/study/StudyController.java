@@ -4,6 +4,7 @@ import com.happycoders.account.CurrentAccount;
 import com.happycoders.domain.Account;
 import com.happycoders.domain.Study;
 import com.happycoders.study.form.StudyForm;
+import com.happycoders.study.query.StudyQueryService;
 import com.happycoders.study.validator.StudyFormValidator;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -30,7 +31,7 @@ public class StudyController {
 
     private final StudyFormValidator studyFormValidator;
 
-    private final StudyRepository studyRepository;
+    private final StudyQueryService studyQueryService;
 
     @InitBinder("studyForm")
     public void studyFormInitBinder(WebDataBinder webDataBinder) {
@@ -57,19 +58,15 @@ public class StudyController {
 
     @GetMapping("/study/{path}")
     public String viewStudy(@CurrentAccount Account account, @PathVariable String path, Model model) {
-//        Study study = studyRepository.findByPath(path);
-        Study study = studyRepository.findByPath(path);
         model.addAttribute(account);
-        model.addAttribute(study);
+        model.addAttribute("study", studyQueryService.getStudyView(path, account));
         return "study/view";
     }
 
     @GetMapping("/study/{path}/members")
     public String viewStudyMembers(@CurrentAccount Account account, @PathVariable String path, Model model) {
-//        Study study = studyService.getStudy(path);
-        Study study = studyRepository.findByPath(path);
         model.addAttribute(account);
-        model.addAttribute(study);
+        model.addAttribute("study", studyQueryService.getStudyMembersView(path, account));
         return "study/members";
     }
 
@@ -1,16 +1,17 @@
 package com.happycoders.study;
 
 import com.happycoders.domain.Study;
-import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+
 @Transactional(readOnly = true)
-public interface StudyRepository extends JpaRepository<Study, Long> {
+public interface StudyRepository extends JpaRepository<Study, Long>, StudyRepositoryExtension {
 
     boolean existsByPath(String path);
 
-    @EntityGraph(value = "Study.withAll", type = EntityGraph.EntityGraphType.LOAD)
     Study findByPath(String path);
 
     @EntityGraph(value = "Study.withTagsAndManagers", type = EntityGraph.EntityGraphType.FETCH)
@@ -22,4 +23,38 @@ public interface StudyRepository extends JpaRepository<Study, Long> {
     @EntityGraph(value = "Study.withManagers", type = EntityGraph.EntityGraphType.FETCH)
     Study findStudyWithManagersByPath(String path);
 
+    // 가입, 탈퇴 중에는 스터디 행을 잠가서 같은 스터디의 가입, 탈퇴가 겹치지 않게 한다. 컬렉션은 읽지 않는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Study s where s.path = :path")
+    Study findStudyForUpdateByPath(@Param("path") String path);
+
+    // 이미 멤버이면 아무것도 하지 않고 0 을 돌려준다.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into \"study_members\" (\"study_id\", \"members_id\") select :studyId, :accountId " +
+            "where not exists (select 1 from \"study_members\" where \"study_id\" = :studyId and \"members_id\" = :accountId)",
+            nativeQuery = true)
+    int insertMember(@Param("studyId") Long studyId, @Param("accountId") Long accountId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from \"study_members\" where \"study_id\" = :studyId and \"members_id\" = :accountId", nativeQuery = true)
+    int deleteMember(@Param("studyId") Long studyId, @Param("accountId") Long accountId);
+
+    // memberCount 는 엔티티 UPDATE 에 들어가지 않으므로 (updatable = false) 여기서만 바꾼다.
+    @Transactional
+    @Modifying
+    @Query("update Study s set s.memberCount = s.memberCount + 1 where s.id = :id")
+    int increaseMemberCount(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Study s set s.memberCount = s.memberCount - 1 where s.id = :id and s.memberCount > 0")
+    int decreaseMemberCount(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Study s set s.managerCount = s.managerCount + 1 where s.id = :id")
+    int increaseManagerCount(@Param("id") Long id);
+
 }
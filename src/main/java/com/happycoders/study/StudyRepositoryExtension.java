@@ -0,0 +1,9 @@
+package com.happycoders.study;
+
+import com.happycoders.domain.Study;
+
+public interface StudyRepositoryExtension {
+
+    Study findStudyWithAllByPath(String path);
+
+}
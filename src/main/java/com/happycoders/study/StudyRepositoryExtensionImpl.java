@@ -0,0 +1,46 @@
+package com.happycoders.study;
+
+import com.happycoders.domain.Study;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * 스터디와 4 개의 @ManyToMany 컬렉션을 한 번의 join 으로 가져오면 결과 행 수가 각 컬렉션 크기의 곱이 된다.
+ * (멤버 300, 태그 10, 지역 5 -> 15,000 행)
+ * 그래서 스터디를 먼저 읽고, 같은 영속성 컨텍스트 안에서 컬렉션마다 fetch join 쿼리를 한 번씩 실행한다.
+ * 각 쿼리는 이미 읽은 스터디 인스턴스의 컬렉션을 채우므로, 전체 행 수는 컬렉션 크기의 합이 된다.
+ */
+@RequiredArgsConstructor
+public class StudyRepositoryExtensionImpl implements StudyRepositoryExtension {
+
+    private static final String[] COLLECTIONS = {"tags", "zones", "managers", "members"};
+
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    @Override
+    public Study findStudyWithAllByPath(String path) {
+        List<Study> studies = entityManager.createQuery(
+                "select s from Study s left join fetch s.content where s.path = :path", Study.class)
+                .setParameter("path", path)
+                .getResultList();
+        if (studies.isEmpty()) {
+            return null;
+        }
+
+        Study study = studies.get(0);
+        for (String collection : COLLECTIONS) {
+            entityManager.createQuery(
+                    "select distinct s from Study s left join fetch s." + collection + " where s = :study", Study.class)
+                    .setParameter("study", study)
+                    .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                    .getResultList();
+        }
+        return study;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.happycoders.study;
+
+import com.happycoders.study.query.StudyQueryService;
+import com.happycoders.study.query.StudySearchCondition;
+import com.happycoders.study.query.StudySearchPage;
+import com.happycoders.study.search.StudySearchHit;
+import com.happycoders.study.search.StudySearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Controller
+public class StudySearchController {
+
+    private final StudyQueryService studyQueryService;
+
+    private final StudySearchIndex studySearchIndex;
+
+    private static final int MAX_TEXT_SEARCH_SIZE = 50;
+
+    /**
+     * 공개된 스터디 검색
+     * ex) /search/study?keyword=스프링&tags=Java&tags=JPA&zones=1&recruiting=true&size=20
+     * 다음 페이지는 응답의 lastPublishedDateTime, lastId 를 같은 이름의 파라미터로 넘긴다.
+     */
+    @GetMapping("/search/study")
+    @ResponseBody
+    public StudySearchPage searchStudy(StudySearchCondition condition) {
+        return studyQueryService.search(condition);
+    }
+
+    /**
+     * 스터디 제목, 소개 전문 검색. 점수가 높은 순서로 size 개까지 돌려준다.
+     * ex) /search/study/text?q=스프링 JPA&size=20
+     */
+    @GetMapping("/search/study/text")
+    @ResponseBody
+    public List<StudySearchHit> searchStudyText(@RequestParam String q, @RequestParam(defaultValue = "20") int size) {
+        return studySearchIndex.search(q, Math.min(size, MAX_TEXT_SEARCH_SIZE));
+    }
+
+}
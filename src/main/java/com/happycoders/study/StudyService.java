@@ -1,17 +1,22 @@
 package com.happycoders.study;
 
+import com.happycoders.counter.SiteCounterService;
 import com.happycoders.domain.Account;
+import com.happycoders.domain.SiteCounter;
 import com.happycoders.domain.Study;
 import com.happycoders.domain.Tag;
 import com.happycoders.domain.Zone;
+import com.happycoders.image.ImageService;
+import com.happycoders.infra.jpa.RequestEntityContext;
 import com.happycoders.study.form.StudyDescriptionForm;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Set;
 
 import static com.happycoders.study.form.StudyForm.VALID_PATH_PATTERN;
 
@@ -25,9 +30,23 @@ public class StudyService {
 
     private final ModelMapper modelMapper;
 
+    private final ImageService imageService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // controller 가 getStudyToUpdate* 로 읽어 둔 study 를 id 로 다시 조회하지 않고 현재 transaction 에 붙인다.
+    private final RequestEntityContext requestEntityContext;
+
+    private final SiteCounterService siteCounterService;
+
     public Study createNewStudy(Study study, Account account) {
         Study newStudy = studyRepository.save(study);
-        newStudy.addManager(account);
+        if (newStudy.addManager(account)) {
+            // INSERT 가 먼저 flush 되고, 관리자 수는 UPDATE 한 번으로 올린다.
+            studyRepository.increaseManagerCount(newStudy.getId());
+        }
+        siteCounterService.increase(SiteCounter.STUDIES);
+        eventPublisher.publishEvent(StudyChangedEvent.updated(newStudy.getId()));
         return newStudy;
     }
 
@@ -38,49 +57,59 @@ public class StudyService {
     }
 
     public Study getStudy(String path) {
-        Study study = this.studyRepository.findByPath(path);
+        Study study = this.studyRepository.findStudyWithAllByPath(path);
         checkIfExistStudy(study, path);
         return study;
     }
 
     public void updateStudyDescription(Study study, StudyDescriptionForm studyDescriptionForm) {
-        // 한 transaction 안에서 이루어지므로, 데이터가 변경된다. form 에 있는 데이터가 entity인 study로 modelmapper를 통해 변경!
-        modelMapper.map(studyDescriptionForm, study);
+        // controller 가 읽어 둔 study 를 이 transaction 에 다시 붙이고 form 의 데이터를 modelmapper로 옮긴다. 상세 소개는 StudyContent 에 반영된다.
+        modelMapper.map(studyDescriptionForm, requestEntityContext.attach(study));
+        eventPublisher.publishEvent(StudyChangedEvent.updated(study.getId()));
     }
 
     public void updateStudyImage(Study study, String image) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.setImage(image));
+        String imageKey = imageService.saveBannerImage(image);
+        requestEntityContext.attach(study).setImage(imageKey);
     }
 
     public void enableStudyBanner(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.setUseBanner(true));
+        requestEntityContext.attach(study).setUseBanner(true);
     }
 
     public void disableStudyBanner(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.setUseBanner(false));
+        requestEntityContext.attach(study).setUseBanner(false);
     }
 
     public void addTag(Study study, Tag tag) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.getTags().add(tag));
+        requestEntityContext.attach(study).getTags().add(tag);
     }
 
     public void removeTag(Study study, Tag tag) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.getTags().remove(tag));
+        requestEntityContext.attach(study).getTags().remove(tag);
     }
 
     public void addZone(Study study, Zone zone) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.getZones().add(zone));
+        requestEntityContext.attach(study).getZones().add(zone);
     }
 
     public void removeZone(Study study, Zone zone) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.getZones().add(zone));
+        requestEntityContext.attach(study).getZones().remove(zone);
+    }
+
+    /**
+     * 스터디 주제를 tags 와 같게 맞춘다. 바뀐 태그만 join table 에 INSERT/DELETE 하고, hibernate 가 batch 로 보낸다.
+     */
+    public void updateTags(Study study, Set<Tag> tags) {
+        Study attached = requestEntityContext.attach(study);
+        attached.getTags().retainAll(tags);
+        attached.getTags().addAll(tags);
+    }
+
+    public void updateZones(Study study, Set<Zone> zones) {
+        Study attached = requestEntityContext.attach(study);
+        attached.getZones().retainAll(zones);
+        attached.getZones().addAll(zones);
     }
 
     public Study getStudyToUpdateTag(Account account, String path) {
@@ -117,28 +146,26 @@ public class StudyService {
     }
 
     public void publish(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(Study::publish);
+        requestEntityContext.attach(study).publish();
+        eventPublisher.publishEvent(StudyChangedEvent.updated(study.getId()));
     }
 
     public void close(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(Study::close);
+        requestEntityContext.attach(study).close();
+        eventPublisher.publishEvent(StudyChangedEvent.updated(study.getId()));
     }
 
     public void startRecruit(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(Study::startRecruit);
+        requestEntityContext.attach(study).startRecruit();
     }
 
     public void stopRecruit(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(Study::stopRecruit);
+        requestEntityContext.attach(study).stopRecruit();
     }
 
     public void updateStudyPath(Study study, String newPath) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.updateNewPath(newPath));
+        requestEntityContext.attach(study).updateNewPath(newPath);
+        eventPublisher.publishEvent(StudyChangedEvent.updated(study.getId()));
     }
 
     public boolean isValidPath(String newPath) {
@@ -149,8 +176,8 @@ public class StudyService {
     }
 
     public void updateStudyTitle(Study study, String newTitle) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
-        byId.ifPresent(s -> s.setTitle(newTitle));
+        requestEntityContext.attach(study).setTitle(newTitle);
+        eventPublisher.publishEvent(StudyChangedEvent.updated(study.getId()));
     }
 
     public boolean isValidTitle(String newTitle) {
@@ -158,23 +185,37 @@ public class StudyService {
     }
 
     public void remove(Study study) {
-        Optional<Study> byId = studyRepository.findById(study.getId());
         if (study.isRemovable()) {
-           studyRepository.delete(byId.orElseThrow(() -> new RuntimeException("스터디가 없습니다.")));
+           studyRepository.delete(requestEntityContext.attach(study));
+           siteCounterService.decrease(SiteCounter.STUDIES);
+           eventPublisher.publishEvent(StudyChangedEvent.removed(study.getId()));
         } else {
             throw new IllegalArgumentException();
         }
     }
 
+    /**
+     * members 컬렉션을 읽지 않고 join table 에 한 행만 넣는다. 이미 멤버이면 아무것도 바꾸지 않는다.
+     * 같은 스터디의 가입, 탈퇴는 스터디 행의 lock 으로 차례대로 처리된다.
+     * memberCount 는 UPDATE 한 번으로 DB 에서 올리므로, 스터디 행 전체를 쓰는 다른 요청 (공개 등) 과 겹쳐도 잃어버리지 않는다.
+     */
     public Study addMember (String path, Account account) {
-        Study study = studyRepository.findStudyWithManagersByPath(path);
-        study.getMembers().add(account);
+        Study study = studyRepository.findStudyForUpdateByPath(path);
+        checkIfExistStudy(study, path);
+        if (studyRepository.insertMember(study.getId(), account.getId()) > 0) {
+            studyRepository.increaseMemberCount(study.getId());
+            study.increaseMemberCount();
+        }
         return study;
     }
 
     public Study removeMember (String path, Account account) {
-        Study study = studyRepository.findStudyWithManagersByPath(path);
-        study.getMembers().remove(account);
+        Study study = studyRepository.findStudyForUpdateByPath(path);
+        checkIfExistStudy(study, path);
+        if (studyRepository.deleteMember(study.getId(), account.getId()) > 0) {
+            studyRepository.decreaseMemberCount(study.getId());
+            study.decreaseMemberCount();
+        }
         return study;
     }
 
@@ -1,18 +1,20 @@
 package com.happycoders.study;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.happycoders.account.CurrentAccount;
 import com.happycoders.domain.Account;
 import com.happycoders.domain.Study;
 import com.happycoders.domain.Tag;
 import com.happycoders.domain.Zone;
+import com.happycoders.image.ImageRendition;
+import com.happycoders.image.ImageService;
 import com.happycoders.study.form.StudyDescriptionForm;
 import com.happycoders.tag.TagForm;
-import com.happycoders.tag.TagRepository;
+import com.happycoders.tag.TagController;
 import com.happycoders.tag.TagService;
+import com.happycoders.tag.TagsForm;
 import com.happycoders.zone.ZoneForm;
-import com.happycoders.zone.ZoneRepository;
+import com.happycoders.zone.ZoneRegistry;
+import com.happycoders.zone.ZonesForm;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.http.ResponseEntity;
@@ -20,10 +22,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @RequestMapping("/study/{path}/settings")
@@ -37,11 +40,9 @@ public class StudySettingsController {
 
     private final TagService tagService;
 
-    private final TagRepository tagRepository;
+    private final ZoneRegistry zoneRegistry;
 
-    private final ZoneRepository zoneRepository;
-
-    private final ObjectMapper objectMapper;
+    private final ImageService imageService;
 
     @GetMapping("/description")
     public String viewStudySetting(@CurrentAccount Account account, @PathVariable String path, Model model) {
@@ -86,6 +87,18 @@ public class StudySettingsController {
         return "redirect:/study/" + study.getEncodedPath() + "/settings/banner";
     }
 
+    @PostMapping ("/banner/image")
+    @ResponseBody
+    public ResponseEntity uploadStudyImage (@CurrentAccount Account account, @PathVariable String path, @RequestParam MultipartFile image) {
+        studyService.getStudyToUpdateStatus(account, path); // 관리자만 올릴 수 있다.
+        try {
+            String key = imageService.upload(image, ImageRendition.BANNERS);
+            return ResponseEntity.ok(Map.of("image", key));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping ("/banner/enable")
     public String enableStudyBanner (@CurrentAccount Account account, @PathVariable String path) {
         Study study = studyService.getStudyToUpdate(account, path);
@@ -101,20 +114,27 @@ public class StudySettingsController {
     }
 
     @GetMapping ("/tags")
-    public String studyTagForm (@CurrentAccount Account account, @PathVariable String path, Model model) throws JsonProcessingException {
+    public String studyTagForm (@CurrentAccount Account account, @PathVariable String path, Model model) {
         Study study = studyService.getStudyToUpdate(account, path);
         model.addAttribute(account);
         model.addAttribute(study);
 
         model.addAttribute("tags", study.getTags().stream().map(Tag::getTitle).collect(Collectors.toList()));
 
-        List<String> allTagTitles = tagRepository.findAll().stream()
-                .map(Tag::getTitle).collect(Collectors.toList());
-
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allTagTitles));
+        model.addAttribute("autocompleteUrl", TagController.AUTOCOMPLETE_URL);
         return "study/settings/tags";
     }
 
+    // 화면에서 여러 번 바꾼 태그를 모아서 한 번에 보낸다.
+    @PostMapping ("/tags")
+    @ResponseBody
+    public ResponseEntity updateTags (@CurrentAccount Account account, @PathVariable String path, @RequestBody TagsForm tagsForm) {
+        Study study = studyService.getStudyToUpdateTag(account, path);
+        List<Tag> tags = tagService.findOrCreateAll(tagsForm.getTagTitles());
+        studyService.updateTags(study, new HashSet<>(tags));
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping ("/tags/add")
     @ResponseBody
     public ResponseEntity addTag (@CurrentAccount Account account, @PathVariable String path, @RequestBody TagForm tagForm) {
@@ -137,7 +157,7 @@ public class StudySettingsController {
     }
 
     @GetMapping ("/zones")
-    public String studyZonesForm (@CurrentAccount Account account, @PathVariable String path, Model model) throws JsonProcessingException {
+    public String studyZonesForm (@CurrentAccount Account account, @PathVariable String path, Model model) {
         Study study = studyService.getStudyToUpdate(account, path);
 
         model.addAttribute(account);
@@ -145,16 +165,25 @@ public class StudySettingsController {
         model.addAttribute("zones", study.getZones().stream()
                 .map(Zone::toString).collect(Collectors.toList()));
 
-        List<String> allZones = zoneRepository.findAll().stream().map(Zone::toString).collect(Collectors.toList());
-
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allZones));
+        model.addAttribute("whitelist", zoneRegistry.getWhitelist());
         return "study/settings/zones";
     }
 
+    @PostMapping ("/zones")
+    @ResponseBody
+    public ResponseEntity updateZones (@CurrentAccount Account account, @PathVariable String path, @RequestBody ZonesForm zonesForm) {
+        Study study = studyService.getStudyToUpdateZone(account, path);
+        Optional<Set<Zone>> zones = zoneRegistry.findAllByName(zonesForm.getZoneNames());
+        if (zones.isEmpty())
+            return ResponseEntity.badRequest().build();
+        studyService.updateZones(study, zones.get());
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping ("/zones/add")
     public ResponseEntity addZone (@CurrentAccount Account account, @PathVariable String path, @RequestBody ZoneForm zoneForm) {
         Study study = studyService.getStudyToUpdateZone(account, path);
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneRegistry.findByName(zoneForm.getZoneName()).orElse(null);
         if (zone == null)
             return ResponseEntity.badRequest().build();
         studyService.addZone(study, zone);
@@ -164,7 +193,7 @@ public class StudySettingsController {
     @PostMapping ("/zones/remove")
     public ResponseEntity removeZone (@CurrentAccount Account account, @PathVariable String path, @RequestBody ZoneForm zoneForm) {
         Study study = studyService.getStudyToUpdateZone(account, path);
-        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        Zone zone = zoneRegistry.findByName(zoneForm.getZoneName()).orElse(null);
 
         if (zone == null)
             return ResponseEntity.badRequest().build();
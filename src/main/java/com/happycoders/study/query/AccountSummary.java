@@ -0,0 +1,21 @@
+package com.happycoders.study.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 멤버 목록에 보여줄 사용자 정보
+ */
+@Getter
+@AllArgsConstructor
+public class AccountSummary {
+
+    private final Long id;
+
+    private final String nickname;
+
+    private final String profileImage;
+
+    private final String bio;
+
+}
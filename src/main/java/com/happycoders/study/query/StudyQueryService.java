@@ -0,0 +1,167 @@
+package com.happycoders.study.query;
+
+import com.happycoders.domain.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 공개 스터디 화면을 위한 조회 전용 서비스.
+ * <p>
+ * 엔티티 대신 필요한 컬럼만 DTO 로 읽는다. read-only transaction 이므로 flush 와 dirty checking 을 하지 않고,
+ * DTO 는 영속성 컨텍스트에 쌓이지 않는다. 멤버 수, 관리자 수는 Study 에 미리 세어 둔 컬럼을 읽는다.
+ */
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Service
+public class StudyQueryService {
+
+    private final EntityManager entityManager;
+
+    /**
+     * study/view : 스터디 정보, 상세 소개, 태그, 지역
+     */
+    public StudyView getStudyView(String path, Account viewer) {
+        StudyView study = getStudyInfo(path, viewer);
+        study.setFullDescription(entityManager.createQuery(
+                "select c.fullDescription from Study s join s.content c where s.id = :id", String.class)
+                .setParameter("id", study.getId())
+                .getResultStream().findFirst().orElse(null));
+        return study;
+    }
+
+    /**
+     * study/members : 스터디 정보, 태그, 지역, 관리자와 멤버 목록
+     */
+    public StudyView getStudyMembersView(String path, Account viewer) {
+        StudyView study = getStudyInfo(path, viewer);
+        study.setManagers(findAccounts("managers", study.getId()));
+        study.setMembers(findAccounts("members", study.getId()));
+        return study;
+    }
+
+    /**
+     * study/events : 스터디 정보, 태그, 지역. 모임 목록은 EventQueryService 가 따로 읽는다.
+     */
+    public StudyView getStudyEventsView(String path, Account viewer) {
+        return getStudyInfo(path, viewer);
+    }
+
+    /**
+     * event/view : 배너와 제목, 현재 사용자가 관리자인지만 필요하므로 태그, 지역은 읽지 않는다.
+     */
+    public StudyView getStudyHeaderView(String path, Account viewer) {
+        return getStudyHeader(path, viewer);
+    }
+
+    private StudyView getStudyInfo(String path, Account viewer) {
+        StudyView study = getStudyHeader(path, viewer);
+        study.setTags(entityManager.createQuery(
+                "select new com.happycoders.study.query.TagSummary(t.title) from Study s join s.tags t " +
+                        "where s.id = :id order by t.title", TagSummary.class)
+                .setParameter("id", study.getId())
+                .getResultList());
+        study.setZones(entityManager.createQuery(
+                "select new com.happycoders.study.query.ZoneSummary(z.id, z.city, z.localNameOfCity, z.province) " +
+                        "from Study s join s.zones z where s.id = :id order by z.city", ZoneSummary.class)
+                .setParameter("id", study.getId())
+                .getResultList());
+        return study;
+    }
+
+    private StudyView getStudyHeader(String path, Account viewer) {
+        StudyView study = entityManager.createQuery(
+                "select new com.happycoders.study.query.StudyView(s.id, s.path, s.title, s.shortDescription, s.image, " +
+                        "s.useBanner, s.published, s.closed, s.recruiting, s.memberCount, s.managerCount) from Study s where s.path = :path", StudyView.class)
+                .setParameter("path", path)
+                .getResultStream().findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(path + "에 해당하는 스터디가 없습니다."));
+
+        if (viewer != null) {
+            study.setViewerId(viewer.getId());
+            study.setViewerMember(count("members", study.getId(), viewer.getId()) > 0);
+            study.setViewerManager(count("managers", study.getId(), viewer.getId()) > 0);
+        }
+        return study;
+    }
+
+    /**
+     * 공개된 스터디를 최근에 공개한 순서로 찾는다.
+     * <p>
+     * (publishedDateTime, id) 의 내림차순으로 정렬하고, 이전 페이지의 마지막 값보다 작은 것부터 size + 1 개를 읽는다.
+     * 인덱스를 따라 바로 시작 위치를 찾으므로 뒤쪽 페이지도 첫 페이지와 같은 비용이 든다.
+     */
+    public StudySearchPage search(StudySearchCondition condition) {
+        StringBuilder jpql = new StringBuilder(
+                "select new com.happycoders.study.query.StudySearchItem(s.id, s.path, s.title, s.shortDescription, s.image, " +
+                        "s.publishedDateTime, s.recruiting, s.closed) from Study s where s.published = true");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (condition.hasCursor()) {
+            jpql.append(" and (s.publishedDateTime < :lastPublished or (s.publishedDateTime = :lastPublished and s.id < :lastId))");
+            parameters.put("lastPublished", condition.getLastPublishedDateTime());
+            parameters.put("lastId", condition.getLastId());
+        }
+        if (condition.getRecruiting() != null) {
+            jpql.append(" and s.recruiting = :recruiting");
+            parameters.put("recruiting", condition.getRecruiting());
+        }
+        if (condition.getClosed() != null) {
+            jpql.append(" and s.closed = :closed");
+            parameters.put("closed", condition.getClosed());
+        }
+        if (StringUtils.hasText(condition.getKeyword())) {
+            jpql.append(" and lower(s.title) like :keyword");
+            parameters.put("keyword", "%" + condition.getKeyword().trim().toLowerCase() + "%");
+        }
+        if (!condition.getTags().isEmpty()) {
+            jpql.append(" and exists (select 1 from Study ts join ts.tags t where ts.id = s.id and t.title in :tags)");
+            parameters.put("tags", condition.getTags());
+        }
+        if (!condition.getZones().isEmpty()) {
+            jpql.append(" and exists (select 1 from Study zs join zs.zones z where zs.id = s.id and z.id in :zones)");
+            parameters.put("zones", condition.getZones());
+        }
+        jpql.append(" order by s.publishedDateTime desc, s.id desc");
+
+        int size = condition.getPageSize();
+        TypedQuery<StudySearchItem> query = entityManager.createQuery(jpql.toString(), StudySearchItem.class)
+                .setMaxResults(size + 1);
+        parameters.forEach(query::setParameter);
+
+        List<StudySearchItem> studies = query.getResultList();
+        boolean hasNext = studies.size() > size;
+        if (hasNext) {
+            studies = studies.subList(0, size);
+        }
+
+        StudySearchItem last = studies.isEmpty() ? null : studies.get(studies.size() - 1);
+        return new StudySearchPage(studies, hasNext,
+                hasNext ? last.getPublishedDateTime() : null,
+                hasNext ? last.getId() : null);
+    }
+
+    private List<AccountSummary> findAccounts(String collection, Long studyId) {
+        return entityManager.createQuery(
+                "select new com.happycoders.study.query.AccountSummary(a.id, a.nickname, a.profileImage, a.bio) " +
+                        "from Study s join s." + collection + " a where s.id = :id order by a.nickname", AccountSummary.class)
+                .setParameter("id", studyId)
+                .getResultList();
+    }
+
+    private long count(String collection, Long studyId, Long accountId) {
+        String jpql = "select count(a) from Study s join s." + collection + " a where s.id = :id";
+        return entityManager.createQuery(jpql + " and a.id = :accountId", Long.class)
+                .setParameter("id", studyId)
+                .setParameter("accountId", accountId)
+                .getSingleResult();
+    }
+
+}
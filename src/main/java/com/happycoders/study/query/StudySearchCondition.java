@@ -0,0 +1,50 @@
+package com.happycoders.study.query;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스터디 검색 조건. 값이 없는 조건은 적용하지 않는다.
+ * <p>
+ * 다음 페이지는 OFFSET 이 아니라 이전 페이지의 마지막 스터디 (lastPublishedDateTime, lastId) 다음부터 찾는다. (keyset pagination)
+ */
+@Data
+public class StudySearchCondition {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 100;
+
+    // 제목에 포함된 단어
+    private String keyword;
+
+    // 태그 이름. 하나라도 가지고 있는 스터디를 찾는다.
+    private List<String> tags = new ArrayList<>();
+
+    // 지역 id. 하나라도 가지고 있는 스터디를 찾는다.
+    private List<Long> zones = new ArrayList<>();
+
+    private Boolean recruiting;
+
+    private Boolean closed;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime lastPublishedDateTime;
+
+    private Long lastId;
+
+    private int size = DEFAULT_SIZE;
+
+    public int getPageSize() {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public boolean hasCursor() {
+        return lastPublishedDateTime != null && lastId != null;
+    }
+
+}
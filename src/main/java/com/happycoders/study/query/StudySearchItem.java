@@ -0,0 +1,31 @@
+package com.happycoders.study.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 스터디 검색 결과 한 건
+ */
+@Getter
+@AllArgsConstructor
+public class StudySearchItem {
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    private final String image;
+
+    private final LocalDateTime publishedDateTime;
+
+    private final boolean recruiting;
+
+    private final boolean closed;
+
+}
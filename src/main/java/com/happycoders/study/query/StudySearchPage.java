@@ -0,0 +1,24 @@
+package com.happycoders.study.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 검색 결과 한 페이지. 다음 페이지가 있으면 다음 요청에 넘길 cursor (lastPublishedDateTime, lastId) 를 같이 준다.
+ */
+@Getter
+@AllArgsConstructor
+public class StudySearchPage {
+
+    private final List<StudySearchItem> studies;
+
+    private final boolean hasNext;
+
+    private final LocalDateTime lastPublishedDateTime;
+
+    private final Long lastId;
+
+}
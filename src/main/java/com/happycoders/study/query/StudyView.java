@@ -0,0 +1,100 @@
+package com.happycoders.study.query;
+
+import com.happycoders.account.UserAccount;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 스터디 화면 (study/view, study/members) 을 그리기 위한 읽기 전용 모델.
+ * <p>
+ * 엔티티가 아니므로 영속성 컨텍스트에 남지 않는다. 템플릿이 Study 엔티티와 같은 이름으로 쓸 수 있도록 같은 getter 를 가진다.
+ * 멤버 전체를 읽지 않도록, 현재 사용자가 멤버/관리자인지는 조회할 때 미리 계산해 둔다.
+ */
+@Getter
+@Setter
+public class StudyView {
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    private final String image;
+
+    private final boolean useBanner;
+
+    private final boolean published;
+
+    private final boolean closed;
+
+    private final boolean recruiting;
+
+    private String fullDescription;
+
+    private List<TagSummary> tags = List.of();
+
+    private List<ZoneSummary> zones = List.of();
+
+    private List<AccountSummary> managers = List.of();
+
+    private List<AccountSummary> members = List.of();
+
+    private final long memberCount;
+
+    private final long managerCount;
+
+    // 화면을 보고 있는 사용자와 그 사용자가 멤버/관리자인지 여부
+    private Long viewerId;
+
+    private boolean viewerMember;
+
+    private boolean viewerManager;
+
+    public StudyView(Long id, String path, String title, String shortDescription, String image,
+                     boolean useBanner, boolean published, boolean closed, boolean recruiting,
+                     long memberCount, long managerCount) {
+        this.id = id;
+        this.path = path;
+        this.title = title;
+        this.shortDescription = shortDescription;
+        this.image = image;
+        this.useBanner = useBanner;
+        this.published = published;
+        this.closed = closed;
+        this.recruiting = recruiting;
+        this.memberCount = memberCount;
+        this.managerCount = managerCount;
+    }
+
+    public boolean isJoinable(UserAccount userAccount) {
+        return this.published && this.recruiting && !this.isMember(userAccount) && !this.isManager(userAccount);
+    }
+
+    public boolean isMember(UserAccount userAccount) {
+        return isViewer(userAccount) && this.viewerMember;
+    }
+
+    public boolean isManager(UserAccount userAccount) {
+        return isViewer(userAccount) && this.viewerManager;
+    }
+
+    private boolean isViewer(UserAccount userAccount) {
+        return userAccount != null && userAccount.getAccountId().equals(this.viewerId);
+    }
+
+    public String getImageUrl(int width) {
+        return image != null ? "/images/" + image + "/" + width : "/images/default_banner.png";
+    }
+
+    public String getEncodedPath() {
+        return URLEncoder.encode(this.path, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.happycoders.study.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TagSummary {
+
+    private final String title;
+
+}
@@ -0,0 +1,23 @@
+package com.happycoders.study.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ZoneSummary {
+
+    private final Long id;
+
+    private final String city;
+
+    private final String localNameOfCity;
+
+    private final String province;
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s)/%s", city, localNameOfCity, province);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.happycoders.study.search;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 검색 인덱스에 들어가는 스터디 한 건.
+ * 색인어별 가중치는 만들 때 한 번 계산한다. (제목 3, 짧은 소개 2, 상세 소개 1)
+ */
+@Getter
+public class StudyDocument {
+
+    private static final float TITLE_WEIGHT = 3f;
+
+    private static final float SHORT_DESCRIPTION_WEIGHT = 2f;
+
+    private static final float FULL_DESCRIPTION_WEIGHT = 1f;
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    // html 을 지운 상세 소개. 검색 결과의 발췌문을 만들 때 쓴다.
+    private final String fullText;
+
+    private final boolean published;
+
+    private final boolean closed;
+
+    private final Map<String, Float> termWeights = new HashMap<>();
+
+    private float length;
+
+    // JPQL constructor expression 에서 사용한다. 상세 소개는 html 그대로 받는다.
+    public StudyDocument(Long id, String path, String title, String shortDescription, String fullDescription,
+                         boolean published, boolean closed) {
+        this(id, path, title, shortDescription, fullDescription, published, closed, true);
+    }
+
+    StudyDocument(Long id, String path, String title, String shortDescription, String fullDescription,
+                  boolean published, boolean closed, boolean html) {
+        this.id = id;
+        this.path = path;
+        this.title = title != null ? title : "";
+        this.shortDescription = shortDescription != null ? shortDescription : "";
+        this.fullText = html ? StudyTokenizer.stripHtml(fullDescription) : (fullDescription != null ? fullDescription : "");
+        this.published = published;
+        this.closed = closed;
+
+        addTerms(this.title, TITLE_WEIGHT);
+        addTerms(this.shortDescription, SHORT_DESCRIPTION_WEIGHT);
+        addTerms(this.fullText, FULL_DESCRIPTION_WEIGHT);
+    }
+
+    private void addTerms(String text, float weight) {
+        for (String term : StudyTokenizer.tokenize(text)) {
+            termWeights.merge(term, weight, Float::sum);
+            length += weight;
+        }
+    }
+
+}
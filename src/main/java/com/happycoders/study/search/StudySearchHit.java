@@ -0,0 +1,25 @@
+package com.happycoders.study.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 검색 결과 한 건. title 과 snippet 은 html escape 된 값이고, 검색어는 &lt;em&gt; 으로 감싸져 있다.
+ */
+@Getter
+@AllArgsConstructor
+public class StudySearchHit {
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String snippet;
+
+    private final boolean closed;
+
+    private final double score;
+
+}
@@ -0,0 +1,445 @@
+package com.happycoders.study.search;
+
+import com.happycoders.config.SearchProperties;
+import com.happycoders.study.StudyChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 스터디 제목, 짧은 소개, 상세 소개에 대한 프로세스 내부의 역색인 (inverted index).
+ * <p>
+ * - 색인어 -> (스터디 id -> 가중치) 를 메모리에 들고, 검색어의 모든 색인어를 가진 스터디를 BM25 점수 순으로 돌려준다.
+ * - StudyService 가 발행하는 {@link StudyChangedEvent} 를 transaction commit 이후에 받아서 해당 스터디만 다시 색인한다.
+ * - 변경이 있으면 주기적으로 로컬 디스크에 저장하고, 시작할 때 파일에서 읽는다.
+ *   파일은 서버가 멈춘 동안의 변경이나 저장하지 못한 변경을 모르므로, 시작이 끝나면 항상 DB 에서 병렬로 다시 만들어 맞춘다.
+ *   다시 만드는 동안에는 파일에서 읽은 인덱스로 검색한다.
+ */
+@Slf4j
+@Component
+public class StudySearchIndex {
+
+    private static final int FILE_VERSION = 1;
+
+    private static final String FILE_NAME = "studies.idx";
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final int SNIPPET_BEFORE = 40;
+
+    private static final int SNIPPET_LENGTH = 120;
+
+    private static final String DOCUMENT_QUERY = "select new com.happycoders.study.search.StudyDocument(" +
+            "s.id, s.path, s.title, s.shortDescription, c.fullDescription, s.published, s.closed) " +
+            "from Study s left join s.content c where s.id in :ids";
+
+    private final SearchProperties searchProperties;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, StudyDocument> documents = new HashMap<>();
+
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+
+    private double totalLength;
+
+    private volatile boolean dirty;
+
+    // 다시 만드는 동안 바뀐 스터디. 새 인덱스로 바꾼 뒤에 다시 색인한다.
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+
+    public StudySearchIndex(SearchProperties searchProperties, EntityManager entityManager,
+                            PlatformTransactionManager transactionManager) {
+        this.searchProperties = searchProperties;
+        this.entityManager = entityManager;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public List<StudySearchHit> search(String query, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(StudyTokenizer.tokenize(query)));
+        if (terms.isEmpty() || size <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Float>> termPostings = new ArrayList<>();
+            for (String term : terms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    return List.of();
+                }
+                termPostings.add(posting);
+            }
+            // 가장 짧은 posting 부터 돌면서 모든 색인어를 가진 스터디만 남긴다.
+            termPostings.sort(Comparator.comparingInt(Map::size));
+
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : Math.max(1, totalLength / documentCount);
+            PriorityQueue<ScoredDocument> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredDocument::getScore));
+
+            for (Long studyId : termPostings.get(0).keySet()) {
+                StudyDocument document = documents.get(studyId);
+                if (document == null || !document.isPublished()) {
+                    continue;
+                }
+
+                double score = 0;
+                boolean matchesAll = true;
+                for (Map<Long, Float> posting : termPostings) {
+                    Float weight = posting.get(studyId);
+                    if (weight == null) {
+                        matchesAll = false;
+                        break;
+                    }
+                    double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                    double norm = K1 * (1 - B + B * document.getLength() / averageLength);
+                    score += idf * (weight * (K1 + 1)) / (weight + norm);
+                }
+
+                if (matchesAll) {
+                    top.offer(new ScoredDocument(document, score));
+                    if (top.size() > size) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<String> words = queryWords(query);
+            List<StudySearchHit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ScoredDocument scored = top.poll();
+                StudyDocument document = scored.getDocument();
+                hits.add(new StudySearchHit(document.getId(), document.getPath(),
+                        highlight(document.getTitle(), words), snippet(document, words),
+                        document.isClosed(), scored.getScore()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudyChanged(StudyChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.getStudyId());
+        }
+
+        if (event.isRemoved()) {
+            remove(event.getStudyId());
+            return;
+        }
+        loadDocuments(List.of(event.getStudyId())).forEach(this::index);
+    }
+
+    public void index(StudyDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.getId());
+            documents.put(document.getId(), document);
+            addPostings(postings, document);
+            totalLength += document.getLength();
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studyId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(studyId);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * DB 의 모든 스터디로 인덱스를 다시 만든다.
+     * 스터디를 chunk 단위로 나누어 여러 스레드에서 읽고 색인한 뒤, 한 번에 새 인덱스로 바꾼다.
+     */
+    public void rebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, searchProperties.getRebuildThreads()));
+        try {
+            List<Long> ids = readTransaction.execute(status -> entityManager
+                    .createQuery("select s.id from Study s order by s.id", Long.class)
+                    .getResultList());
+
+            List<Future<List<StudyDocument>>> futures = new ArrayList<>();
+            int chunkSize = Math.max(1, searchProperties.getRebuildChunkSize());
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+                futures.add(executor.submit(() -> loadDocuments(chunk)));
+            }
+
+            Map<Long, StudyDocument> newDocuments = new HashMap<>();
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            double newTotalLength = 0;
+            for (Future<List<StudyDocument>> future : futures) {
+                for (StudyDocument document : future.get()) {
+                    newDocuments.put(document.getId(), document);
+                    addPostings(newPostings, document);
+                    newTotalLength += document.getLength();
+                }
+            }
+
+            swap(newDocuments, newPostings, newTotalLength);
+            log.info("rebuilt study search index with {} studies", newDocuments.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("failed to rebuild study search index", e);
+        } finally {
+            executor.shutdown();
+            rebuilding = false;
+        }
+
+        // 다시 만드는 동안 바뀐 스터디는 새 인덱스에 다시 반영한다.
+        List<Long> changed = new ArrayList<>(changedDuringRebuild);
+        changedDuringRebuild.clear();
+        if (!changed.isEmpty()) {
+            Map<Long, StudyDocument> reloaded = new HashMap<>();
+            loadDocuments(changed).forEach(document -> reloaded.put(document.getId(), document));
+            for (Long studyId : changed) {
+                StudyDocument document = reloaded.get(studyId);
+                if (document != null) {
+                    index(document);
+                } else {
+                    remove(studyId);
+                }
+            }
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        Path file = indexFile();
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            Map<Long, StudyDocument> newDocuments = new HashMap<>(count * 2);
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            double newTotalLength = 0;
+            for (int i = 0; i < count; i++) {
+                StudyDocument document = new StudyDocument(in.readLong(), readString(in), readString(in), readString(in),
+                        readString(in), in.readBoolean(), in.readBoolean(), false);
+                newDocuments.put(document.getId(), document);
+                addPostings(newPostings, document);
+                newTotalLength += document.getLength();
+            }
+            swap(newDocuments, newPostings, newTotalLength);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("failed to load study search index. it will be rebuilt from database", e);
+        }
+    }
+
+    /**
+     * 파일에서 읽은 인덱스에는 삭제된 스터디가 남아 있거나 바뀐 내용이 빠져 있을 수 있으므로 DB 기준으로 다시 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelay = 60_000L)
+    public void saveIfDirty() {
+        if (dirty) {
+            save();
+        }
+    }
+
+    @PreDestroy
+    public void save() {
+        List<StudyDocument> snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = new ArrayList<>(documents.values());
+            dirty = false;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Path file = indexFile();
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeInt(snapshot.size());
+                for (StudyDocument document : snapshot) {
+                    out.writeLong(document.getId());
+                    writeString(out, document.getPath());
+                    writeString(out, document.getTitle());
+                    writeString(out, document.getShortDescription());
+                    writeString(out, document.getFullText());
+                    out.writeBoolean(document.isPublished());
+                    out.writeBoolean(document.isClosed());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("failed to save study search index", e);
+        }
+    }
+
+    private List<StudyDocument> loadDocuments(List<Long> ids) {
+        List<StudyDocument> loaded = readTransaction.execute(status -> entityManager
+                .createQuery(DOCUMENT_QUERY, StudyDocument.class)
+                .setParameter("ids", ids)
+                .getResultList());
+        return loaded != null ? loaded : List.of();
+    }
+
+    private void swap(Map<Long, StudyDocument> newDocuments, Map<String, Map<Long, Float>> newPostings, double newTotalLength) {
+        lock.writeLock().lock();
+        try {
+            this.documents = newDocuments;
+            this.postings = newPostings;
+            this.totalLength = newTotalLength;
+            this.dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long studyId) {
+        StudyDocument removed = documents.remove(studyId);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.getTermWeights().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(studyId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= removed.getLength();
+    }
+
+    private static void addPostings(Map<String, Map<Long, Float>> postings, StudyDocument document) {
+        document.getTermWeights().forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.getId(), weight));
+    }
+
+    private static List<String> queryWords(String query) {
+        List<String> words = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String highlight(String text, List<String> words) {
+        String escaped = HtmlUtils.htmlEscape(text);
+        for (String word : words) {
+            Pattern pattern = Pattern.compile(Pattern.quote(HtmlUtils.htmlEscape(word)), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            escaped = pattern.matcher(escaped).replaceAll(match -> "<em>" + Matcher.quoteReplacement(match.group()) + "</em>");
+        }
+        return escaped;
+    }
+
+    private static String snippet(StudyDocument document, List<String> words) {
+        String text = document.getFullText().isEmpty() ? document.getShortDescription() : document.getFullText();
+        String lower = text.toLowerCase();
+        int position = -1;
+        for (String word : words) {
+            int found = lower.indexOf(word.toLowerCase());
+            if (found >= 0 && (position < 0 || found < position)) {
+                position = found;
+            }
+        }
+
+        int start = Math.max(0, position - SNIPPET_BEFORE);
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        String snippet = text.substring(start, end);
+        return (start > 0 ? "…" : "") + highlight(snippet, words) + (end < text.length() ? "…" : "");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Path indexFile() {
+        return Paths.get(searchProperties.getDir(), FILE_NAME);
+    }
+
+    private static class ScoredDocument {
+
+        private final StudyDocument document;
+
+        private final double score;
+
+        private ScoredDocument(StudyDocument document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        private StudyDocument getDocument() {
+            return document;
+        }
+
+        private double getScore() {
+            return score;
+        }
+
+    }
+
+}
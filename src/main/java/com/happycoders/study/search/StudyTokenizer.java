@@ -0,0 +1,78 @@
+package com.happycoders.study.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 검색어와 스터디 내용을 색인어로 나눈다.
+ * <p>
+ * - 영문, 숫자 : 소문자로 바꾼 단어 그대로
+ * - 한글 : 조사가 붙어도 찾을 수 있도록 두 글자씩 겹쳐서 자른다. (bigram, "스프링을" -> 스프, 프링, 링을)
+ *   한 글자 단어는 그대로 쓴다.
+ */
+final class StudyTokenizer {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+
+    private static final Pattern HTML_ENTITY = Pattern.compile("&(nbsp|amp|lt|gt|quot|#39);");
+
+    private StudyTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase();
+        int i = 0;
+        while (i < lower.length()) {
+            char c = lower.charAt(i);
+            if (isHangul(c)) {
+                int start = i;
+                while (i < lower.length() && isHangul(lower.charAt(i))) {
+                    i++;
+                }
+                addBigrams(lower, start, i, tokens);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < lower.length() && Character.isLetterOrDigit(lower.charAt(i)) && !isHangul(lower.charAt(i))) {
+                    i++;
+                }
+                tokens.add(lower.substring(start, i));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Summernote 가 만든 html 에서 태그를 지우고 글자만 남긴다.
+     */
+    static String stripHtml(String html) {
+        if (html == null) {
+            return "";
+        }
+        String text = HTML_TAG.matcher(html).replaceAll(" ");
+        text = HTML_ENTITY.matcher(text).replaceAll(" ");
+        return text.replaceAll("\\s+", " ").trim();
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i + 2 <= end; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') || (c >= 'ㄱ' && c <= 'ㆎ');
+    }
+
+}
@@ -0,0 +1,272 @@
+package com.happycoders.tag;
+
+import com.happycoders.domain.Tag;
+import com.happycoders.infra.referencedata.ReferenceDataImportedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 태그 입력 화면의 자동완성에 쓰는 메모리 색인.
+ * <p>
+ * - 태그 title 을 소문자로 바꾼 값과 한글 초성 ("자바" -> "ㅈㅂ") 으로 각각 정렬한 배열을 들고, 이진 탐색으로 prefix 범위를 찾는다.
+ * - 범위 안에서 사용 수 (관심 태그로 등록한 회원 + 주제로 등록한 스터디) 가 많은 순서로 size 개만 고른다.
+ * - 새 태그는 TagService 가 만들 때 (commit 이후에) 바로 추가하고, 사용 수는 주기적으로 DB 에서 다시 센다.
+ * 배열은 바뀌지 않는 snapshot 으로 교체하므로 읽는 쪽은 lock 없이 읽는다.
+ * snapshot 을 바꿀 때마다 version 을 올리므로, 같은 version 이면 같은 검색어에 같은 결과를 돌려준다.
+ */
+@RequiredArgsConstructor
+@Component
+public class TagAutocompleteIndex {
+
+    private static final char[] CHOSEONG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::getKey).thenComparing(Entry::getTitle);
+
+    private static final Comparator<Entry> BY_CHOSEONG = Comparator.comparing(Entry::getChoseong).thenComparing(BY_KEY);
+
+    // 사용 수가 많은 순, 같으면 짧은 title 순
+    private static final Comparator<Entry> BY_RANK = Comparator.comparingLong(Entry::getUsage).reversed()
+            .thenComparingInt(entry -> entry.getTitle().length())
+            .thenComparing(Entry::getKey);
+
+    private final TagRepository tagRepository;
+
+    private volatile Snapshot snapshot;
+
+    private long version;
+
+    public List<String> suggest(String query, int size) {
+        return suggest(snapshot(), query, size);
+    }
+
+    /**
+     * 주어진 snapshot 에서 찾는다. 응답의 ETag 와 내용이 같은 snapshot 에서 나오도록 controller 가 쓴다.
+     */
+    List<String> suggest(Snapshot current, String query, int size) {
+        if (query == null || query.isBlank() || size <= 0) {
+            return List.of();
+        }
+
+        String key = query.trim().toLowerCase();
+
+        // 순위가 가장 낮은 것을 맨 앞에 두고 size 개만 남긴다.
+        PriorityQueue<Entry> top = new PriorityQueue<>(BY_RANK.reversed());
+        Set<Long> seen = new HashSet<>();
+        collect(current.byKey, key, Entry::getKey, size, top, seen);
+        if (isChoseongQuery(key)) {
+            collect(current.byChoseong, key, Entry::getChoseong, size, top, seen);
+        }
+
+        List<String> titles = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            titles.add(top.poll().getTitle());
+        }
+        Collections.reverse(titles);
+        return titles;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (this.snapshot == null) {
+                    reload();
+                }
+                current = this.snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 태그와 사용 수를 DB 에서 다시 읽는다.
+     */
+    @Scheduled(fixedDelay = 600_000L, initialDelay = 600_000L)
+    public synchronized void reload() {
+        Map<Long, Long> usages = new HashMap<>();
+        tagRepository.countAccountUsages().forEach(row -> usages.merge((Long) row[0], (Long) row[1], Long::sum));
+        tagRepository.countStudyUsages().forEach(row -> usages.merge((Long) row[0], (Long) row[1], Long::sum));
+
+        List<Tag> tags = tagRepository.findAll();
+        Entry[] entries = new Entry[tags.size()];
+        for (int i = 0; i < entries.length; i++) {
+            Tag tag = tags.get(i);
+            entries[i] = new Entry(tag.getId(), tag.getTitle(), usages.getOrDefault(tag.getId(), 0L));
+        }
+        this.snapshot = new Snapshot(++version, entries);
+    }
+
+    @EventListener
+    public void onReferenceDataImported(ReferenceDataImportedEvent event) {
+        if ("tags".equals(event.getName())) {
+            reload();
+        }
+    }
+
+    /**
+     * 새로 만든 태그를 정렬된 자리에 끼워 넣는다. 태그가 만들어지는 일은 드물기 때문에 배열을 복사한다.
+     */
+    public synchronized void add(Tag tag) {
+        Snapshot current = snapshot();
+        Entry entry = new Entry(tag.getId(), tag.getTitle(), 0L);
+        int position = Arrays.binarySearch(current.byKey, entry, BY_KEY);
+        if (position >= 0) {
+            return;
+        }
+        this.snapshot = new Snapshot(++version, insert(current.byKey, entry, -position - 1),
+                insert(current.byChoseong, entry, -Arrays.binarySearch(current.byChoseong, entry, BY_CHOSEONG) - 1));
+    }
+
+    private static void collect(Entry[] sorted, String prefix, Function<Entry, String> key,
+                                int size, PriorityQueue<Entry> top, Set<Long> seen) {
+        for (int i = lowerBound(sorted, prefix, key); i < sorted.length && key.apply(sorted[i]).startsWith(prefix); i++) {
+            Entry entry = sorted[i];
+            if (!seen.add(entry.getId())) {
+                continue;
+            }
+            if (top.size() < size) {
+                top.offer(entry);
+            } else if (BY_RANK.compare(entry, top.peek()) < 0) {
+                top.poll();
+                top.offer(entry);
+            }
+        }
+    }
+
+    private static int lowerBound(Entry[] sorted, String prefix, Function<Entry, String> key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key.apply(sorted[mid]).compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Entry[] insert(Entry[] sorted, Entry entry, int position) {
+        Entry[] inserted = new Entry[sorted.length + 1];
+        System.arraycopy(sorted, 0, inserted, 0, position);
+        inserted[position] = entry;
+        System.arraycopy(sorted, position, inserted, position + 1, sorted.length - position);
+        return inserted;
+    }
+
+    /**
+     * 초성이 하나라도 있고, 완성된 한글 글자가 없으면 초성 검색으로 본다. ex) "ㅈㅂ", "ㅅㅍㄹ"
+     */
+    static boolean isChoseongQuery(String query) {
+        boolean hasChoseong = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (isSyllable(c)) {
+                return false;
+            }
+            if (c >= 'ㄱ' && c <= 'ㅎ') {
+                hasChoseong = true;
+            }
+        }
+        return hasChoseong;
+    }
+
+    /**
+     * 한글 글자는 초성으로 바꾸고 나머지 글자는 그대로 둔다. ex) "자바 Spring" -> "ㅈㅂ spring"
+     */
+    static String toChoseong(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            builder.append(isSyllable(c) ? CHOSEONG[(c - '가') / (21 * 28)] : c);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    public static class Snapshot {
+
+        private final long version;
+
+        private final Entry[] byKey;
+
+        private final Entry[] byChoseong;
+
+        private Snapshot(long version, Entry[] entries) {
+            this.version = version;
+            this.byKey = entries.clone();
+            Arrays.sort(this.byKey, BY_KEY);
+            this.byChoseong = entries.clone();
+            Arrays.sort(this.byChoseong, BY_CHOSEONG);
+        }
+
+        private Snapshot(long version, Entry[] byKey, Entry[] byChoseong) {
+            this.version = version;
+            this.byKey = byKey;
+            this.byChoseong = byChoseong;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return byKey.length;
+        }
+
+    }
+
+    private static class Entry {
+
+        private final long id;
+
+        private final String title;
+
+        private final String key;
+
+        private final String choseong;
+
+        private final long usage;
+
+        private Entry(long id, String title, long usage) {
+            this.id = id;
+            this.title = title;
+            this.key = title.toLowerCase();
+            this.choseong = toChoseong(this.key);
+            this.usage = usage;
+        }
+
+        private long getId() {
+            return id;
+        }
+
+        private String getTitle() {
+            return title;
+        }
+
+        private String getKey() {
+            return key;
+        }
+
+        private String getChoseong() {
+            return choseong;
+        }
+
+        private long getUsage() {
+            return usage;
+        }
+
+    }
+
+}
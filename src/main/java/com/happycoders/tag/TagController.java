@@ -0,0 +1,46 @@
+package com.happycoders.tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+/**
+ * 태그 입력 화면 (Tagify) 의 자동완성 목록을 내려준다.
+ * <p>
+ * 전체 태그 목록을 브라우저로 보내지 않고, 입력한 글자로 시작하는 (또는 초성이 같은) 태그 중 많이 쓰이는 것만 돌려준다.
+ * 자동완성 색인의 version 을 ETag 로 쓰므로, 색인이 바뀌지 않았으면 같은 검색어를 다시 물어도 본문 없이 304 로 답한다.
+ */
+@RequiredArgsConstructor
+@Controller
+public class TagController {
+
+    public static final String AUTOCOMPLETE_URL = "/tags/autocomplete";
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    // 로그인한 사용자만 볼 수 있으므로 공유 캐시에는 두지 않고, 매번 ETag 로 확인한다.
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final TagAutocompleteIndex tagAutocompleteIndex;
+
+    @GetMapping(AUTOCOMPLETE_URL)
+    public ResponseEntity<List<String>> autocomplete(@RequestParam String q, @RequestParam(defaultValue = "10") int size,
+                                                     @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TagAutocompleteIndex.Snapshot snapshot = tagAutocompleteIndex.snapshot();
+        String etag = "\"" + snapshot.getVersion() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL)
+                .body(tagAutocompleteIndex.suggest(snapshot, q, Math.min(size, MAX_SUGGESTIONS)));
+    }
+
+}
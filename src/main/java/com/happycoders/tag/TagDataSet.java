@@ -0,0 +1,45 @@
+package com.happycoders.tag;
+
+import com.happycoders.domain.Tag;
+import com.happycoders.infra.referencedata.ReferenceDataSet;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * tags.csv : 처음부터 추천할 태그 이름 (한 줄에 하나)
+ * 운영 DB 의 태그는 사용자가 만든 것만 두고, 로컬 개발 환경에서만 넣는다.
+ */
+@Profile("local")
+@Component
+public class TagDataSet implements ReferenceDataSet<Tag> {
+
+    @Override
+    public String getName() {
+        return "tags";
+    }
+
+    @Override
+    public String getResource() {
+        return "tags.csv";
+    }
+
+    @Override
+    public Tag parse(String[] columns) {
+        return Tag.builder().title(columns[0].trim()).build();
+    }
+
+    @Override
+    public String keyOf(Tag tag) {
+        return tag.getTitle();
+    }
+
+    @Override
+    public Set<String> existingKeys(EntityManager entityManager) {
+        return new HashSet<>(entityManager.createQuery("select t.title from Tag t", String.class).getResultList());
+    }
+
+}
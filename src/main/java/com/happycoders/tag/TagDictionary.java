@@ -0,0 +1,79 @@
+package com.happycoders.tag;
+
+import com.happycoders.domain.Tag;
+import com.happycoders.infra.referencedata.ReferenceDataImportedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * title 별로 태그 id 를 메모리에 들고 있는 사전.
+ * <p>
+ * 처음 사용할 때 DB 에서 한 번 읽고, 이후에는 TagService 가 commit 된 태그를 추가한다.
+ * 자주 쓰는 태그는 DB 를 거치지 않고 찾는다. 엔티티는 여러 스레드가 나눠 쓰면 안 되므로 id 와 title 만 들고,
+ * 찾을 때마다 새 (detached) Tag 를 만들어 돌려준다.
+ * 읽는 쪽은 ConcurrentHashMap 만 보므로 lock 없이 읽는다.
+ */
+@RequiredArgsConstructor
+@Component
+public class TagDictionary {
+
+    private final TagRepository tagRepository;
+
+    private volatile Map<String, Long> tags;
+
+    public Optional<Tag> find(String title) {
+        Long id = tags().get(title);
+        return id != null ? Optional.of(newTag(id, title)) : Optional.empty();
+    }
+
+    public int size() {
+        return tags().size();
+    }
+
+    /**
+     * DB 에서 다시 읽는다.
+     */
+    public synchronized void reload() {
+        Map<String, Long> loaded = new ConcurrentHashMap<>();
+        tagRepository.findAll().forEach(tag -> loaded.put(tag.getTitle(), tag.getId()));
+        this.tags = loaded;
+    }
+
+    @EventListener
+    public void onReferenceDataImported(ReferenceDataImportedEvent event) {
+        if ("tags".equals(event.getName())) {
+            reload();
+        }
+    }
+
+    /**
+     * commit 된 태그만 넣어야 한다. 이미 같은 title 이 있으면 먼저 들어간 id 로 만든 Tag 를 돌려준다.
+     */
+    public Tag add(Tag tag) {
+        Long previous = tags().putIfAbsent(tag.getTitle(), tag.getId());
+        return newTag(previous != null ? previous : tag.getId(), tag.getTitle());
+    }
+
+    private static Tag newTag(Long id, String title) {
+        return Tag.builder().id(id).title(title).build();
+    }
+
+    private Map<String, Long> tags() {
+        Map<String, Long> current = this.tags;
+        if (current == null) {
+            synchronized (this) {
+                if (this.tags == null) {
+                    reload();
+                }
+                current = this.tags;
+            }
+        }
+        return current;
+    }
+
+}
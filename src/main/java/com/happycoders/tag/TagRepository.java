@@ -2,11 +2,25 @@ package com.happycoders.tag;
 
 import com.happycoders.domain.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Transactional(readOnly = true)
 public interface TagRepository extends JpaRepository<Tag, Long> {
 
     Tag findByTitle(String title);
 
+    List<Tag> findByTitleIn(Collection<String> titles);
+
+    // [tag id, 관심 태그로 등록한 회원 수]
+    @Query("select t.id, count(a) from Account a join a.tags t group by t.id")
+    List<Object[]> countAccountUsages();
+
+    // [tag id, 주제로 등록한 스터디 수]
+    @Query("select t.id, count(s) from Study s join s.tags t group by t.id")
+    List<Object[]> countStudyUsages();
+
 }
@@ -1,23 +1,122 @@
 package com.happycoders.tag;
 
 import com.happycoders.domain.Tag;
-import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.TransactionScoped;
+import java.util.*;
 
-@RequiredArgsConstructor
-@TransactionScoped
+/**
+ * title 로 태그를 찾고, 없으면 만든다.
+ * <p>
+ * - 이미 있는 태그는 {@link TagDictionary} 에서 lock 없이 찾으므로 DB 를 거치지 않는다.
+ * - 없는 태그는 호출한 쪽의 transaction 과 별개인 짧은 transaction (REQUIRES_NEW) 안에서 INSERT 하고 바로 commit 한다.
+ *   두 요청이 같은 태그를 동시에 만들어서 unique 제약에 걸려도 실패한 것은 그 transaction 뿐이므로,
+ *   호출한 쪽의 transaction 은 그대로 두고 먼저 commit 된 태그를 다시 읽어서 돌려준다.
+ *   그래서 호출한 쪽이 나중에 rollback 되어도 만든 태그는 남는다. 태그는 누구나 쓰는 기준 데이터이므로 그대로 둔다.
+ * - 새로 만든 태그는 commit 된 뒤에 사전과 자동완성 색인에 넣는다.
+ */
 @Service
 public class TagService {
+
     private final TagRepository tagRepository;
 
-    public Tag findOrCreate (String tagTitle) {
-        Tag tag = tagRepository.findByTitle(tagTitle);
+    private final TagDictionary tagDictionary;
+
+    private final TagAutocompleteIndex tagAutocompleteIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TagService(TagRepository tagRepository, TagDictionary tagDictionary, TagAutocompleteIndex tagAutocompleteIndex,
+                      PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.tagDictionary = tagDictionary;
+        this.tagAutocompleteIndex = tagAutocompleteIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Tag findOrCreate(String tagTitle) {
+        return tagDictionary.find(tagTitle).orElseGet(() -> loadOrCreate(tagTitle));
+    }
+
+    /**
+     * 여러 title 을 한 번에 찾는다. 사전에 없는 것은 한 번의 SELECT 로 찾고, 그래도 없는 것만 만든다.
+     * 돌려주는 순서는 titles 의 순서와 같다.
+     */
+    public List<Tag> findOrCreateAll(Collection<String> titles) {
+        Map<String, Tag> resolved = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String title : titles) {
+            Optional<Tag> tag = tagDictionary.find(title);
+            if (tag.isPresent()) {
+                resolved.put(title, tag.get());
+            } else {
+                resolved.put(title, null);
+                missing.add(title);
+            }
+        }
 
-        if (tag == null) {
-            tag = tagRepository.save(Tag.builder().title(tagTitle).build());
+        if (!missing.isEmpty()) {
+            try {
+                transactionTemplate.execute(status -> {
+                    for (Tag tag : tagRepository.findByTitleIn(missing)) {
+                        resolved.put(tag.getTitle(), remember(tag, false));
+                        missing.remove(tag.getTitle());
+                    }
+                    List<Tag> created = new ArrayList<>(missing.size());
+                    missing.forEach(title -> created.add(Tag.builder().title(title).build()));
+                    for (Tag tag : tagRepository.saveAll(created)) {
+                        resolved.put(tag.getTitle(), remember(tag, true));
+                    }
+                    tagRepository.flush();
+                    return null;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // 다른 요청이 그 사이에 일부를 만들었다. 한 개씩 다시 찾는다.
+                missing.forEach(title -> resolved.put(title, findOrCreate(title)));
+            }
         }
+        return new ArrayList<>(resolved.values());
+    }
+
+    private Tag loadOrCreate(String tagTitle) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Tag tag = tagRepository.findByTitle(tagTitle);
+                if (tag != null) {
+                    return remember(tag, false);
+                }
+                return remember(tagRepository.saveAndFlush(Tag.builder().title(tagTitle).build()), true);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 같은 태그를 동시에 만든 다른 요청이 먼저 commit 했다.
+            Tag tag = transactionTemplate.execute(status -> tagRepository.findByTitle(tagTitle));
+            if (tag == null) {
+                throw e;
+            }
+            return tagDictionary.add(tag);
+        }
+    }
+
+    /**
+     * commit 된 뒤에 사전과 자동완성 색인에 넣는다. rollback 되면 넣지 않는다.
+     */
+    private Tag remember(Tag tag, boolean created) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                tagDictionary.add(tag);
+                if (created) {
+                    tagAutocompleteIndex.add(tag);
+                }
+            }
+        });
         return tag;
     }
 
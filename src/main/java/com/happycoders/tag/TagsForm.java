@@ -0,0 +1,14 @@
+package com.happycoders.tag;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 태그 입력 화면에 남아 있는 태그 전체. 서버는 지금 태그와 비교해서 더하고 뺀다.
+@Data
+public class TagsForm {
+
+    private List<String> tagTitles = new ArrayList<>();
+
+}
@@ -0,0 +1,81 @@
+package com.happycoders.zone;
+
+import com.happycoders.domain.Zone;
+import com.happycoders.infra.referencedata.ReferenceDataSet;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * zones_kr.csv : City,도시 이름,Province
+ */
+@Slf4j
+@Component
+public class ZoneDataSet implements ReferenceDataSet<Zone> {
+
+    // hibernate.globally_quoted_identifiers 를 켜 두었으므로 native SQL 에서도 이름을 따옴표로 감싼다.
+    private static final String SEQUENCE = "\"zone_seq\"";
+
+    // Zone 의 allocationSize. pooled optimizer 는 sequence 값에서 이만큼 앞의 id 부터 쓴다.
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public String getName() {
+        return "zones";
+    }
+
+    @Override
+    public String getResource() {
+        return "zones_kr.csv";
+    }
+
+    @Override
+    public Zone parse(String[] columns) {
+        return Zone.builder()
+                .city(columns[0])
+                .localNameOfCity(columns[1])
+                .province(columns[2])
+                .build();
+    }
+
+    @Override
+    public String keyOf(Zone zone) {
+        return zone.toString();
+    }
+
+    /**
+     * zone_seq 가 생기기 전에는 지역도 공용 hibernate_sequence 로 id 를 받았다.
+     * ddl-auto 는 zone_seq 를 1 부터 만들므로, 예전 DB 에서는 sequence 를 기존 id 보다 뒤로 옮겨야 새 지역의 id 가 겹치지 않는다.
+     * sequence 가 이미 앞서 있으면 건드리지 않는다. (다른 서버가 미리 받아 둔 id 를 다시 나눠주지 않도록)
+     */
+    @Override
+    public void prepare(EntityManager entityManager) {
+        Long maxId = entityManager.createQuery("select max(z.id) from Zone z", Long.class).getSingleResult();
+        if (maxId == null) {
+            return;
+        }
+
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        long next = ((Number) entityManager.createNativeQuery(dialect.getSequenceNextValString(SEQUENCE))
+                .getSingleResult()).longValue();
+        if (next - ALLOCATION_SIZE < maxId) {
+            long restart = maxId + ALLOCATION_SIZE + 1;
+            entityManager.createNativeQuery("alter sequence " + SEQUENCE + " restart with " + restart).executeUpdate();
+            log.info("moved zone_seq past existing zone ids: {} -> {}", next, restart);
+        }
+    }
+
+    @Override
+    public Set<String> existingKeys(EntityManager entityManager) {
+        return entityManager.createQuery("select z from Zone z", Zone.class).getResultStream()
+                .map(Zone::toString)
+                .collect(Collectors.toSet());
+    }
+
+}
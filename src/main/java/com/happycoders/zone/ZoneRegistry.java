@@ -0,0 +1,111 @@
+package com.happycoders.zone;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.happycoders.domain.Zone;
+import com.happycoders.infra.referencedata.ReferenceDataImportedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * 지역 정보는 zones_kr.csv 에서 들어오는 고정된 데이터이므로 한 번 읽어서 메모리에 두고 쓴다.
+ * <p>
+ * id 와 "City(local)/Province" (Zone#toString, Tagify 가 보내는 값) 로 바로 찾을 수 있고,
+ * 화면의 whitelist JSON 도 미리 만들어 둔다. 데이터가 바뀌면 {@link #refresh()} 로 다시 읽는다.
+ */
+@RequiredArgsConstructor
+@Component
+public class ZoneRegistry {
+
+    private final ZoneRepository zoneRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public Optional<Zone> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId.get(id));
+    }
+
+    public Optional<Zone> findByName(String zoneName) {
+        return zoneName == null ? Optional.empty() : Optional.ofNullable(snapshot().byName.get(zoneName));
+    }
+
+    /**
+     * 이름이 모두 있는 지역일 때만 돌려준다.
+     */
+    public Optional<Set<Zone>> findAllByName(Collection<String> zoneNames) {
+        Set<Zone> zones = new LinkedHashSet<>();
+        for (String zoneName : zoneNames) {
+            Optional<Zone> zone = findByName(zoneName);
+            if (zone.isEmpty()) {
+                return Optional.empty();
+            }
+            zones.add(zone.get());
+        }
+        return Optional.of(zones);
+    }
+
+    public String getWhitelist() {
+        return snapshot().whitelist;
+    }
+
+    public synchronized void refresh() {
+        List<Zone> zones = zoneRepository.findAll();
+
+        Map<Long, Zone> byId = new HashMap<>();
+        Map<String, Zone> byName = new LinkedHashMap<>();
+        for (Zone zone : zones) {
+            byId.put(zone.getId(), zone);
+            byName.put(zone.toString(), zone);
+        }
+
+        try {
+            String whitelist = objectMapper.writeValueAsString(byName.keySet());
+            this.snapshot = new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName), whitelist);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener
+    public void onReferenceDataImported(ReferenceDataImportedEvent event) {
+        if ("zones".equals(event.getName())) {
+            refresh();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (this.snapshot == null) {
+                    refresh();
+                }
+                current = this.snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static class Snapshot {
+
+        private final Map<Long, Zone> byId;
+
+        private final Map<String, Zone> byName;
+
+        private final String whitelist;
+
+        private Snapshot(Map<Long, Zone> byId, Map<String, Zone> byName, String whitelist) {
+            this.byId = byId;
+            this.byName = byName;
+            this.whitelist = whitelist;
+        }
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.happycoders.zone;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 지역 입력 화면에 남아 있는 지역 전체. Seoul(서울)/None 형식으로 들어온다.
+@Data
+public class ZonesForm {
+
+    private List<String> zoneNames = new ArrayList<>();
+
+}
@@ -0,0 +1,109 @@
+package com.happycoders.account;
+
+import com.happycoders.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 로그인 캐시가 commit 이후에만 바뀌는지 보려면 transaction 경계를 직접 정해야 하므로 테스트 transaction 을 쓰지 않는다.
+@SpringBootTest
+class AccountServiceTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Account account;
+
+    @BeforeEach
+    void beforeEach() {
+        account = accountRepository.save(Account.builder().nickname("cached").email("cached@email.com")
+                .password(passwordEncoder.encode("old-password")).build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteById(account.getId());
+    }
+
+    @DisplayName("비밀번호 변경 - commit 된 뒤에 로그인 캐시를 지운다")
+    @Test
+    void updatePassword_evictAfterCommit() {
+        assertPassword("old-password", accountService.loadUserByUsername("cached"));
+
+        transactionTemplate.execute(status -> {
+            accountService.updatePassword(account, "new-password");
+            // 아직 commit 되지 않았으므로 다른 로그인 요청은 commit 된 예전 값을 본다.
+            assertPassword("old-password", accountService.loadUserByUsername("cached"));
+            return null;
+        });
+
+        assertPassword("new-password", accountService.loadUserByUsername("cached"));
+    }
+
+    @DisplayName("비밀번호 변경 - rollback 되면 로그인 캐시에 바뀐 값이 남지 않는다")
+    @Test
+    void updatePassword_rollback() {
+        assertPassword("old-password", accountService.loadUserByUsername("cached"));
+
+        transactionTemplate.execute(status -> {
+            accountService.updatePassword(account, "new-password");
+            accountService.loadUserByUsername("cached");
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertPassword("old-password", accountService.loadUserByUsername("cached"));
+    }
+
+    @DisplayName("닉네임 변경 - commit 된 뒤에는 예전 닉네임으로 로그인할 수 없다")
+    @Test
+    void updateNickname_evictAfterCommit() {
+        accountService.loadUserByUsername("cached");
+
+        transactionTemplate.execute(status -> {
+            accountService.updateNickname(account, "renamed");
+            return null;
+        });
+
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername("cached"));
+        assertEquals("renamed", accountService.loadUserByUsername("cached@email.com").getUsername());
+    }
+
+    @DisplayName("rollback 된 transaction 안에서 읽은 계정은 로그인 캐시에 남지 않는다")
+    @Test
+    void loadUserByUsername_rollback() {
+        Long rolledBackId = transactionTemplate.execute(status -> {
+            Account temporary = accountRepository.save(Account.builder().nickname("temporary").email("temporary@email.com")
+                    .password(passwordEncoder.encode("password")).build());
+            accountService.loadUserByUsername("temporary");
+            status.setRollbackOnly();
+            return temporary.getId();
+        });
+        assertNotNull(rolledBackId);
+
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername("temporary"));
+    }
+
+    private void assertPassword(String rawPassword, UserDetails user) {
+        assertTrue(passwordEncoder.matches(rawPassword, user.getPassword()));
+    }
+
+}
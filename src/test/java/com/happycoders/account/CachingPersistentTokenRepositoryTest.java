@@ -0,0 +1,126 @@
+package com.happycoders.account;
+
+import com.happycoders.config.RememberMeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.rememberme.CookieTheftException;
+import org.springframework.security.web.authentication.rememberme.InMemoryTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingPersistentTokenRepositoryTest {
+
+    private CountingTokenRepository database;
+
+    private CachingPersistentTokenRepository tokenRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        RememberMeProperties properties = new RememberMeProperties();
+        properties.setCacheSize(2);
+        database = new CountingTokenRepository();
+        tokenRepository = new CachingPersistentTokenRepository(database, properties, new SimpleMeterRegistry());
+    }
+
+    @DisplayName("한 번 읽은 토큰은 다시 SELECT 하지 않는다")
+    @Test
+    void getTokenForSeries_cached() {
+        database.createNewToken(token("minjae", "series", "token"));
+
+        assertEquals("token", tokenRepository.getTokenForSeries("series").getTokenValue());
+        assertEquals("token", tokenRepository.getTokenForSeries("series").getTokenValue());
+
+        assertEquals(1, database.selects);
+        assertNull(tokenRepository.getTokenForSeries("unknown"));
+    }
+
+    @DisplayName("캐시 크기를 넘으면 가장 오래 쓰지 않은 토큰부터 버린다")
+    @Test
+    void getTokenForSeries_evicted() {
+        for (String series : new String[]{"s1", "s2", "s3"}) {
+            tokenRepository.createNewToken(token("minjae", series, "token"));
+        }
+
+        tokenRepository.getTokenForSeries("s2");
+        tokenRepository.getTokenForSeries("s3");
+        assertEquals(0, database.selects);
+
+        tokenRepository.getTokenForSeries("s1");
+        assertEquals(1, database.selects);
+    }
+
+    @DisplayName("token rotation 은 DB 에 바로 쓰고 캐시도 새 token 으로 바꾼다")
+    @Test
+    void updateToken_rotation() {
+        tokenRepository.createNewToken(token("minjae", "series", "old"));
+
+        tokenRepository.updateToken("series", "new", new Date());
+
+        assertEquals("new", database.getTokenForSeries("series").getTokenValue());
+        assertEquals("new", tokenRepository.getTokenForSeries("series").getTokenValue());
+    }
+
+    @DisplayName("로그아웃하면 그 사용자의 토큰을 DB 와 캐시에서 모두 지운다")
+    @Test
+    void removeUserTokens() {
+        tokenRepository.createNewToken(token("minjae", "s1", "token"));
+        tokenRepository.createNewToken(token("other", "s2", "token"));
+
+        tokenRepository.removeUserTokens("minjae");
+
+        assertNull(tokenRepository.getTokenForSeries("s1"));
+        assertNotNull(tokenRepository.getTokenForSeries("s2"));
+    }
+
+    @DisplayName("자동 로그인마다 token 을 바꾸고, 다른 서버가 바꾼 token 은 도난으로 보지 않는다")
+    @Test
+    void autoLogin_rotatesAndToleratesStaleCache() {
+        CachingRememberMeServices rememberMeServices = new CachingRememberMeServices("key",
+                username -> User.withUsername(username).password("password").roles("USER").build(), tokenRepository);
+        tokenRepository.createNewToken(token("minjae", "series", "first"));
+
+        UserDetails user = rememberMeServices.processAutoLoginCookie(new String[]{"series", "first"},
+                new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertEquals("minjae", user.getUsername());
+        String rotated = database.getTokenForSeries("series").getTokenValue();
+        assertNotEquals("first", rotated);
+        assertEquals(rotated, tokenRepository.getTokenForSeries("series").getTokenValue());
+
+        // 다른 서버가 rotation 한 token 을 쿠키로 받는다. 이 서버의 캐시는 아직 예전 token 이다.
+        database.updateToken("series", "from-other-server", new Date());
+        user = rememberMeServices.processAutoLoginCookie(new String[]{"series", "from-other-server"},
+                new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertEquals("minjae", user.getUsername());
+
+        // 이미 바뀐 token 을 다시 내밀면 도난으로 보고 토큰을 모두 지운다.
+        assertThrows(CookieTheftException.class, () -> rememberMeServices.processAutoLoginCookie(
+                new String[]{"series", "from-other-server"}, new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertNull(tokenRepository.getTokenForSeries("series"));
+    }
+
+    private PersistentRememberMeToken token(String username, String series, String tokenValue) {
+        return new PersistentRememberMeToken(username, series, tokenValue, new Date());
+    }
+
+    private static class CountingTokenRepository extends InMemoryTokenRepositoryImpl {
+
+        private int selects;
+
+        @Override
+        public synchronized PersistentRememberMeToken getTokenForSeries(String seriesId) {
+            selects++;
+            return super.getTokenForSeries(seriesId);
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.happycoders.counter;
+
+import com.happycoders.domain.SiteCounter;
+import com.happycoders.study.StudyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// SiteCounter 행을 지우고 다시 만들어야 하므로 테스트 transaction 을 쓰지 않고, 끝나면 실제 값으로 맞춰 둔다.
+@SpringBootTest
+class CounterReconcilerTest {
+
+    @Autowired
+    CounterReconciler counterReconciler;
+
+    @Autowired
+    SiteCounterService siteCounterService;
+
+    @Autowired
+    SiteCounterRepository siteCounterRepository;
+
+    @Autowired
+    StudyRepository studyRepository;
+
+    @AfterEach
+    void afterEach() {
+        counterReconciler.createSiteCounters();
+        counterReconciler.reconcile();
+    }
+
+    @Test
+    @DisplayName("없는 SiteCounter 행은 실제 값으로 만들고, 이미 있는 행은 덮어쓰지 않는다")
+    void createSiteCounters() {
+        siteCounterRepository.deleteById(SiteCounter.STUDIES);
+        siteCounterService.increase(SiteCounter.STUDIES); // 행이 없으면 더할 곳이 없다.
+        assertTrue(siteCounterRepository.findById(SiteCounter.STUDIES).isEmpty());
+
+        counterReconciler.createSiteCounters();
+        long studies = studyRepository.count();
+        assertEquals(studies, siteCounterService.get(SiteCounter.STUDIES));
+
+        siteCounterService.increase(SiteCounter.STUDIES);
+        counterReconciler.createSiteCounters();
+        assertEquals(studies + 1, siteCounterService.get(SiteCounter.STUDIES));
+    }
+
+    @Test
+    @DisplayName("어긋난 SiteCounter 는 UPDATE 한 번으로 실제 값으로 맞춘다")
+    void reconcile_siteCounter() {
+        siteCounterRepository.add(SiteCounter.STUDIES, 5);
+
+        counterReconciler.reconcile();
+
+        assertEquals(studyRepository.count(), siteCounterService.get(SiteCounter.STUDIES));
+    }
+
+}
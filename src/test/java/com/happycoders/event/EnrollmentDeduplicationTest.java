@@ -0,0 +1,127 @@
+package com.happycoders.event;
+
+import com.happycoders.account.AccountRepository;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.Enrollment;
+import com.happycoders.domain.Event;
+import com.happycoders.domain.EventType;
+import com.happycoders.domain.Study;
+import com.happycoders.study.StudyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 예전 DB 처럼 unique 제약이 없는 enrollment 테이블을 만들어야 한다. DDL 은 transaction 을 commit 하므로 테스트 transaction 을 쓰지 않고 직접 지운다.
+@SpringBootTest
+class EnrollmentDeduplicationTest {
+
+    private static final String PATH = "dedup-study";
+
+    @Autowired
+    EnrollmentDeduplication enrollmentDeduplication;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Account manager;
+
+    private Account member;
+
+    private Event event;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = accountRepository.save(Account.builder().nickname("dedup-manager").email("dedup-manager@email.com").password("12345678").build());
+        member = accountRepository.save(Account.builder().nickname("dedup-member").email("dedup-member@email.com").password("12345678").build());
+        Study study = new Study();
+        study.setPath(PATH);
+        study.setTitle("dedup study");
+        study.setShortDescription("short description");
+        study = studyService.createNewStudy(study, manager);
+
+        Event newEvent = new Event();
+        newEvent.setTitle("dedup event");
+        newEvent.setEventType(EventType.CONFIRMATIVE);
+        newEvent.setLimitOfEnrollments(2);
+        newEvent.setEndEnrollmentDateTime(LocalDateTime.now().plusDays(1));
+        newEvent.setStartDateTime(LocalDateTime.now().plusDays(2));
+        newEvent.setEndDateTime(LocalDateTime.now().plusDays(2).plusHours(2));
+        event = eventService.createEvent(newEvent, study, manager);
+
+        jdbcTemplate.execute("alter table \"enrollment\" drop constraint \"" + EnrollmentDeduplication.CONSTRAINT + "\"");
+    }
+
+    @AfterEach
+    void afterEach() {
+        enrollmentRepository.deleteAll(enrollments());
+        enrollmentDeduplication.ensureUniqueConstraint();
+        eventRepository.deleteById(event.getId());
+        studyService.remove(studyService.getStudyToUpdateStatus(manager, PATH));
+        accountRepository.delete(member);
+        accountRepository.delete(manager);
+    }
+
+    @DisplayName("제약이 없으면 먼저 한 신청만 남기고 확정, 참석 여부는 옮긴 뒤 제약을 만든다")
+    @Test
+    void ensureUniqueConstraint() {
+        Enrollment first = enrollmentRepository.save(enrollment(member, false, false));
+        enrollmentRepository.save(enrollment(member, true, true));
+        Enrollment other = enrollmentRepository.save(enrollment(manager, false, false));
+        assertFalse(enrollmentDeduplication.hasUniqueConstraint());
+
+        enrollmentDeduplication.ensureUniqueConstraint();
+
+        assertTrue(enrollmentDeduplication.hasUniqueConstraint());
+        List<Enrollment> enrollments = enrollments();
+        assertEquals(2, enrollments.size());
+        Enrollment kept = enrollmentRepository.findByEventIdAndAccountId(event.getId(), member.getId()).orElseThrow();
+        assertEquals(first.getId(), kept.getId());
+        assertTrue(kept.isAccepted());
+        assertTrue(kept.isAttended());
+        assertFalse(enrollmentRepository.findById(other.getId()).orElseThrow().isAccepted());
+        assertThrows(DataIntegrityViolationException.class, () -> enrollmentRepository.save(enrollment(member, false, false)));
+    }
+
+    private Enrollment enrollment(Account account, boolean accepted, boolean attended) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setEvent(event);
+        enrollment.setAccount(account);
+        enrollment.setEnrolledAt(LocalDateTime.now());
+        enrollment.setAccepted(accepted);
+        enrollment.setAttended(attended);
+        return enrollment;
+    }
+
+    private List<Enrollment> enrollments() {
+        return enrollmentRepository.findAll().stream()
+                .filter(e -> e.getEvent().getId().equals(event.getId()))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.happycoders.event;
+
+import com.happycoders.WithAccount;
+import com.happycoders.account.AccountRepository;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.Enrollment;
+import com.happycoders.domain.Event;
+import com.happycoders.domain.EventType;
+import com.happycoders.domain.Study;
+import com.happycoders.event.query.EventPage;
+import com.happycoders.event.query.EventQueryService;
+import com.happycoders.event.query.EventSummary;
+import com.happycoders.event.query.EventView;
+import com.happycoders.study.StudyService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EventControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @WithAccount("minjae")
+    @DisplayName("모임 목록 - 다가오는 모임과 지난 모임을 나누고, 지난 모임은 페이지로 나눈다")
+    @SuppressWarnings("unchecked")
+    void viewStudyEvents() throws Exception {
+        Account minjae = accountRepository.findByNickname("minjae");
+        Study study = createStudy("event-study", minjae);
+        LocalDateTime now = LocalDateTime.now();
+
+        Event upcoming = createEvent("upcoming", study, minjae, now.plusDays(1));
+        for (int i = 1; i <= EventQueryService.PAST_EVENTS_PAGE_SIZE + 2; i++) {
+            createEvent("past " + i, study, minjae, now.minusDays(i));
+        }
+        enroll(upcoming, minjae);
+        entityManager.flush();
+        entityManager.clear();
+
+        MvcResult result = mockMvc.perform(get("/study/event-study/events"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("study/events"))
+                .andExpect(model().attributeExists("account", "study", "newEvents", "oldEvents"))
+                .andReturn();
+
+        List<EventSummary> newEvents = (List<EventSummary>) result.getModelAndView().getModel().get("newEvents");
+        assertEquals(1, newEvents.size());
+        assertEquals("upcoming", newEvents.get(0).getTitle());
+        assertEquals(1, newEvents.get(0).getEnrollmentCount());
+
+        EventPage firstPage = (EventPage) result.getModelAndView().getModel().get("oldEvents");
+        assertEquals(EventQueryService.PAST_EVENTS_PAGE_SIZE, firstPage.getEvents().size());
+        assertEquals("past 1", firstPage.getEvents().get(0).getTitle());
+        assertTrue(firstPage.isHasNext());
+
+        EventPage secondPage = (EventPage) mockMvc.perform(get("/study/event-study/events").param("page", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getModelAndView().getModel().get("oldEvents");
+        assertEquals(2, secondPage.getEvents().size());
+        assertFalse(secondPage.isHasNext());
+    }
+
+    @Test
+    @WithAccount("minjae")
+    @DisplayName("모임 조회 - 참가 신청이 늘어나도 쿼리 수가 같다")
+    void viewEvent_constantStatements() throws Exception {
+        Account minjae = accountRepository.findByNickname("minjae");
+        Study study = createStudy("event-study", minjae);
+        Event event = createEvent("event", study, minjae, LocalDateTime.now().plusDays(1));
+        enroll(event, minjae);
+        entityManager.flush();
+        entityManager.clear();
+
+        long oneEnrollment = countStatementsOfEventView(event);
+
+        for (int i = 0; i < 3; i++) {
+            Account account = accountRepository.save(Account.builder().nickname("member" + i)
+                    .email("member" + i + "@email.com").password("12345678").build());
+            enroll(event, account);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(oneEnrollment, countStatementsOfEventView(event));
+
+        EventView view = (EventView) mockMvc.perform(get("/study/event-study/events/" + event.getId()))
+                .andReturn().getModelAndView().getModel().get("event");
+        assertEquals(4, view.getEnrollments().size());
+        assertEquals("minjae", view.getEnrollments().get(0).getAccount().getNickname());
+    }
+
+    @Test
+    @WithAccount("minjae")
+    @DisplayName("모임 조회 - 대기 순번은 선착순 모임에서만 보여준다")
+    void viewEvent_waitingNumbers() throws Exception {
+        Account minjae = accountRepository.findByNickname("minjae");
+        Study study = createStudy("event-study", minjae);
+        Event fcfs = createEvent("fcfs", study, minjae, LocalDateTime.now().plusDays(1));
+        Event confirmative = createEvent("confirmative", study, minjae, LocalDateTime.now().plusDays(1));
+        confirmative.setEventType(EventType.CONFIRMATIVE);
+        for (int i = 0; i < 2; i++) {
+            Account account = accountRepository.save(Account.builder().nickname("member" + i)
+                    .email("member" + i + "@email.com").password("12345678").build());
+            enroll(fcfs, account);
+            enroll(confirmative, account);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        EventView fcfsView = eventView(fcfs);
+        assertEquals(1, fcfsView.getWaitingNumber(fcfsView.getEnrollments().get(0)));
+        assertEquals(2, fcfsView.getWaitingNumber(fcfsView.getEnrollments().get(1)));
+
+        EventView confirmativeView = eventView(confirmative);
+        assertEquals(0, confirmativeView.getWaitingNumber(confirmativeView.getEnrollments().get(0)));
+        assertEquals(0, confirmativeView.getWaitingNumber(confirmativeView.getEnrollments().get(1)));
+    }
+
+    private EventView eventView(Event event) throws Exception {
+        return (EventView) mockMvc.perform(get("/study/event-study/events/" + event.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getModelAndView().getModel().get("event");
+    }
+
+    private long countStatementsOfEventView(Event event) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/study/event-study/events/" + event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("event/view"))
+                .andExpect(model().attributeExists("account", "study", "event"));
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Study createStudy(String path, Account manager) {
+        Study study = new Study();
+        study.setPath(path);
+        study.setTitle(path);
+        study.setShortDescription("short description");
+        return studyService.createNewStudy(study, manager);
+    }
+
+    private Event createEvent(String title, Study study, Account account, LocalDateTime startDateTime) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setEventType(EventType.FCFS);
+        event.setLimitOfEnrollments(2);
+        event.setEndEnrollmentDateTime(startDateTime.minusHours(1));
+        event.setStartDateTime(startDateTime);
+        event.setEndDateTime(startDateTime.plusHours(2));
+        return eventService.createEvent(event, study, account);
+    }
+
+    private void enroll(Event event, Account account) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setEvent(event);
+        enrollment.setAccount(account);
+        enrollment.setEnrolledAt(LocalDateTime.now());
+        entityManager.persist(enrollment);
+    }
+
+}
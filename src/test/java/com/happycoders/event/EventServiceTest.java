@@ -0,0 +1,247 @@
+package com.happycoders.event;
+
+import com.happycoders.account.AccountRepository;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.Enrollment;
+import com.happycoders.domain.Event;
+import com.happycoders.domain.EventType;
+import com.happycoders.domain.Study;
+import com.happycoders.study.StudyService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 동시에 commit 되는 참가 신청을 만들어야 하므로 테스트 transaction 을 쓰지 않고, 만든 데이터는 직접 지운다.
+@Slf4j
+@SpringBootTest
+class EventServiceTest {
+
+    private static final int THREADS = 16;
+
+    private static final int LIMIT = 5;
+
+    private static final int ENROLLEES = 40;
+
+    private static final String PATH = "fcfs-study";
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    WaitlistPromoter waitlistPromoter;
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    private Account manager;
+
+    private Event event;
+
+    private List<Account> enrollees;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = accountRepository.save(Account.builder().nickname("fcfs-manager").email("fcfs-manager@email.com").password("12345678").build());
+        Study study = new Study();
+        study.setPath(PATH);
+        study.setTitle("fcfs study");
+        study.setShortDescription("short description");
+        study = studyService.createNewStudy(study, manager);
+
+        Event newEvent = new Event();
+        newEvent.setTitle("hot event");
+        newEvent.setEventType(EventType.FCFS);
+        newEvent.setLimitOfEnrollments(LIMIT);
+        newEvent.setEndEnrollmentDateTime(LocalDateTime.now().plusDays(1));
+        newEvent.setStartDateTime(LocalDateTime.now().plusDays(2));
+        newEvent.setEndDateTime(LocalDateTime.now().plusDays(2).plusHours(2));
+        event = eventService.createEvent(newEvent, study, manager);
+
+        enrollees = new ArrayList<>();
+        for (int i = 0; i < ENROLLEES; i++) {
+            enrollees.add(Account.builder().nickname("fcfs-" + i).email("fcfs-" + i + "@email.com").password("12345678").build());
+        }
+        enrollees = accountRepository.saveAll(enrollees);
+    }
+
+    @AfterEach
+    void afterEach() {
+        enrollmentRepository.deleteAll(enrollments());
+        eventRepository.deleteById(event.getId());
+        studyService.remove(studyService.getStudyToUpdateStatus(manager, PATH));
+        accountRepository.deleteAll(enrollees);
+        accountRepository.delete(manager);
+    }
+
+    @Test
+    @DisplayName("선착순 모임 - 동시에 신청해도 모집 인원만큼만 확정하고, 확정된 사람은 모두 대기자보다 먼저 신청한 것이다")
+    void enroll_concurrently() throws Exception {
+        long accepted = enrollAllConcurrently().stream().filter(Enrollment::isAccepted).count();
+
+        assertEquals(LIMIT, accepted);
+        assertEquals(LIMIT, eventRepository.findById(event.getId()).orElseThrow().getAcceptedCount());
+        List<Enrollment> enrollments = enrollments();
+        assertEquals(ENROLLEES, enrollments.size());
+        assertEquals(LIMIT, enrollments.stream().filter(Enrollment::isAccepted).count());
+
+        LocalDateTime lastAccepted = enrollments.stream().filter(Enrollment::isAccepted)
+                .map(Enrollment::getEnrolledAt).max(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime firstWaiting = enrollments.stream().filter(e -> !e.isAccepted())
+                .map(Enrollment::getEnrolledAt).min(LocalDateTime::compareTo).orElseThrow();
+        assertFalse(lastAccepted.isAfter(firstWaiting));
+    }
+
+    // 성능 측정용. 결과는 로그로만 남기고, 정확성은 enroll_concurrently 에서 확인한다.
+    @Tag("benchmark")
+    @Test
+    @DisplayName("[benchmark] 선착순 모임 - 한 모임에 동시에 들어오는 신청의 처리량")
+    void enroll_throughput() throws Exception {
+        long startedAt = System.nanoTime();
+        enrollAllConcurrently();
+        long elapsed = System.nanoTime() - startedAt;
+
+        log.info("{} enrollments on one event with {} threads: {} ms, {} enrollments/s",
+                ENROLLEES, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed), ENROLLEES * 1_000_000_000L / elapsed);
+    }
+
+    @Test
+    @DisplayName("같은 사람이 동시에 여러 번 신청해도 한 번만 신청되고 자리도 하나만 잡으며, 모두 같은 신청을 받는다")
+    void enroll_sameAccountConcurrently() throws Exception {
+        Account account = enrollees.get(0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Enrollment>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return eventService.enroll(PATH, event.getId(), account);
+            }));
+        }
+        start.countDown();
+        Set<Long> ids = new HashSet<>();
+        for (Future<Enrollment> future : futures) {
+            ids.add(future.get(30, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        assertEquals(Set.of(enrollmentOf(account).getId()), ids);
+        assertEquals(1, enrollments().size());
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getAcceptedCount());
+    }
+
+    @Test
+    @DisplayName("확정된 신청을 취소하면 먼저 기다린 대기자가 확정되고, 새 신청자는 대기한다")
+    void disenroll_promotesWaiting() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertTrue(eventService.enroll(PATH, event.getId(), enrollees.get(i)).isAccepted());
+        }
+        Account first = enrollees.get(LIMIT);
+        Account second = enrollees.get(LIMIT + 1);
+        assertFalse(eventService.enroll(PATH, event.getId(), first).isAccepted());
+        assertFalse(eventService.enroll(PATH, event.getId(), second).isAccepted());
+
+        eventService.disenroll(PATH, event.getId(), enrollees.get(0));
+        eventService.disenroll(PATH, event.getId(), enrollees.get(0));
+        // 대기자가 있는 동안 빈 자리는 새 신청자가 가져가지 않는다.
+        assertFalse(eventService.enroll(PATH, event.getId(), enrollees.get(LIMIT + 2)).isAccepted());
+
+        waitlistPromoter.promotePending();
+        waitlistPromoter.promotePending();
+
+        assertEquals(LIMIT, eventRepository.findById(event.getId()).orElseThrow().getAcceptedCount());
+        assertTrue(enrollmentOf(first).isAccepted());
+        assertFalse(enrollmentOf(second).isAccepted());
+    }
+
+    @Test
+    @DisplayName("동시에 여러 명이 취소해도 빈 자리 수만큼만 대기자를 확정한다")
+    void disenroll_concurrently() throws Exception {
+        int cancels = 3;
+        for (int i = 0; i < LIMIT + cancels + 2; i++) {
+            eventService.enroll(PATH, event.getId(), enrollees.get(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < cancels; i++) {
+            Account account = enrollees.get(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                eventService.disenroll(PATH, event.getId(), account);
+                waitlistPromoter.promotePending();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        waitlistPromoter.promotePending();
+
+        assertEquals(LIMIT, eventRepository.findById(event.getId()).orElseThrow().getAcceptedCount());
+        List<Enrollment> enrollments = enrollments();
+        assertEquals(LIMIT, enrollments.stream().filter(Enrollment::isAccepted).count());
+        for (int i = LIMIT; i < LIMIT + cancels; i++) {
+            assertTrue(enrollmentOf(enrollees.get(i)).isAccepted());
+        }
+        assertFalse(enrollmentOf(enrollees.get(LIMIT + cancels)).isAccepted());
+    }
+
+    // 모든 신청자가 THREADS 개의 스레드에서 한꺼번에 신청한다.
+    private List<Enrollment> enrollAllConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Enrollment>> futures = new ArrayList<>();
+        for (Account account : enrollees) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return eventService.enroll(PATH, event.getId(), account);
+            }));
+        }
+
+        start.countDown();
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (Future<Enrollment> future : futures) {
+            enrollments.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return enrollments;
+    }
+
+    private Enrollment enrollmentOf(Account account) {
+        return enrollmentRepository.findByEventIdAndAccountId(event.getId(), account.getId()).orElseThrow();
+    }
+
+    private List<Enrollment> enrollments() {
+        return enrollmentRepository.findAll().stream()
+                .filter(e -> e.getEvent().getId().equals(event.getId()))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.happycoders.image;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    private static final long LENGTH = 1000;
+
+    @DisplayName("bytes=start-end 범위는 그대로, 파일 끝을 넘는 end 는 파일 끝으로 자른다")
+    @Test
+    void parse_range() {
+        assertRange(0, 99, ByteRange.parse("bytes=0-99", LENGTH).orElseThrow());
+        assertRange(900, 999, ByteRange.parse("bytes=900-", LENGTH).orElseThrow());
+        assertRange(900, 999, ByteRange.parse("bytes=900-5000", LENGTH).orElseThrow());
+        assertRange(900, 999, ByteRange.parse("bytes=-100", LENGTH).orElseThrow());
+        assertRange(0, 999, ByteRange.parse("bytes=-5000", LENGTH).orElseThrow());
+    }
+
+    @DisplayName("형식이 잘못된 Range 는 무시하고 전체 파일을 내려준다")
+    @Test
+    void parse_malformed() {
+        assertRange(0, 999, ByteRange.parse("bytes=abc-def", LENGTH).orElseThrow());
+        assertRange(0, 999, ByteRange.parse("bytes=10", LENGTH).orElseThrow());
+        assertRange(0, 999, ByteRange.parse("items=0-10", LENGTH).orElseThrow());
+        assertRange(0, 999, ByteRange.parse("bytes=-", LENGTH).orElseThrow());
+    }
+
+    @DisplayName("여러 범위나 겹치는 범위는 multipart 로 나누지 않고 전체 파일을 내려준다")
+    @Test
+    void parse_multipleRanges() {
+        assertRange(0, 999, ByteRange.parse("bytes=0-99,200-299", LENGTH).orElseThrow());
+        assertRange(0, 999, ByteRange.parse("bytes=0-500,100-600", LENGTH).orElseThrow());
+    }
+
+    @DisplayName("파일 밖을 가리키거나 거꾸로 된 범위는 만족할 수 없다")
+    @Test
+    void parse_unsatisfiable() {
+        assertTrue(ByteRange.parse("bytes=1000-", LENGTH).isEmpty());
+        assertTrue(ByteRange.parse("bytes=500-100", LENGTH).isEmpty());
+        assertTrue(ByteRange.parse("bytes=-0", LENGTH).isEmpty());
+    }
+
+    private void assertRange(long start, long end, ByteRange range) {
+        assertEquals(start, range.getStart());
+        assertEquals(end, range.getEnd());
+        assertEquals(end - start + 1, range.getLength());
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageControllerTest {
+
+    @TempDir
+    Path root;
+
+    private ThumbnailService thumbnailService;
+
+    private ImageController imageController;
+
+    private byte[] image;
+
+    private String key;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setDir(root.toString());
+        ImageStore imageStore = new ImageStore(imageProperties);
+        thumbnailService = new ThumbnailService(imageStore, imageProperties);
+        imageController = new ImageController(imageStore, thumbnailService);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), "png", out);
+        image = out.toByteArray();
+        key = imageStore.store(image);
+    }
+
+    @AfterEach
+    void afterEach() {
+        thumbnailService.shutdown();
+    }
+
+    @DisplayName("이미지 - 해시를 strong ETag 로 하고 immutable 로 캐시시킨다")
+    @Test
+    void image() throws Exception {
+        MockHttpServletResponse response = get(new MockHttpServletRequest());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"" + key + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("image/png", response.getContentType());
+        assertArrayEquals(image, response.getContentAsByteArray());
+    }
+
+    @DisplayName("이미지 - If-None-Match 가 ETag 와 같으면 본문 없이 304")
+    @Test
+    void image_notModified() throws Exception {
+        for (String ifNoneMatch : new String[]{"\"" + key + "\"", "W/\"" + key + "\"", "\"other\", \"" + key + "\"", "*"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+
+            MockHttpServletResponse response = get(request);
+
+            assertEquals(304, response.getStatus());
+            assertEquals(0, response.getContentAsByteArray().length);
+        }
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        assertEquals(200, get(request).getStatus());
+    }
+
+    @DisplayName("이미지 - Range 요청에는 206 으로 요청한 부분만 보낸다")
+    @Test
+    void image_partialContent() throws Exception {
+        MockHttpServletResponse response = get(range("bytes=2-5"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/" + image.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(image, 2, 6), response.getContentAsByteArray());
+
+        response = get(range("bytes=-3"));
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(image, image.length - 3, image.length), response.getContentAsByteArray());
+    }
+
+    @DisplayName("이미지 - 파일 밖의 Range 는 416 과 전체 길이를 알려준다")
+    @Test
+    void image_rangeNotSatisfiable() throws Exception {
+        MockHttpServletResponse response = get(range("bytes=" + image.length + "-"));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + image.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @DisplayName("이미지 - 형식이 잘못되었거나 겹치는 Range 는 무시하고 200 으로 전체를 보낸다")
+    @Test
+    void image_malformedOrOverlappingRange() throws Exception {
+        for (String header : new String[]{"bytes=abc-def", "bytes=10", "pages=0-1", "bytes=0-5,3-8", "bytes=0-5,0-5"}) {
+            MockHttpServletResponse response = get(range(header));
+
+            assertEquals(200, response.getStatus(), header);
+            assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE), header);
+            assertArrayEquals(image, response.getContentAsByteArray(), header);
+        }
+    }
+
+    @DisplayName("이미지 - If-Range 가 ETag 와 다르면 Range 를 무시한다")
+    @Test
+    void image_ifRangeMismatch() throws Exception {
+        MockHttpServletRequest request = range("bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(image, response.getContentAsByteArray());
+    }
+
+    @DisplayName("이미지 - 없는 이미지와 없는 크기는 404")
+    @Test
+    void image_notFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageController.image(key.replace(key.charAt(0), key.charAt(0) == 'a' ? 'b' : 'a'), new MockHttpServletRequest(), response);
+        assertEquals(404, response.getStatus());
+
+        response = new MockHttpServletResponse();
+        imageController.rendition(key, 25, new MockHttpServletRequest(), response);
+        assertEquals(404, response.getStatus());
+    }
+
+    private MockHttpServletRequest range(String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, header);
+        return request;
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        request.setMethod("GET");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageController.image(key, request, response);
+        return response;
+    }
+
+}
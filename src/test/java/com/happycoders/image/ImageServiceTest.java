@@ -0,0 +1,89 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// cropper 가 보내는 base64 data url 도 multipart 업로드와 같은 검사를 거치는지 본다.
+class ImageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStore imageStore;
+
+    private ThumbnailService thumbnailService;
+
+    private ImageService imageService;
+
+    @BeforeEach
+    void beforeEach() {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setDir(root.toString());
+        imageProperties.setMaxPixels(10_000L);
+        imageStore = new ImageStore(imageProperties);
+        thumbnailService = new ThumbnailService(imageStore, new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10), new ThreadPoolExecutor.AbortPolicy()));
+        imageService = new ImageService(imageStore, thumbnailService, imageProperties);
+    }
+
+    @AfterEach
+    void afterEach() {
+        thumbnailService.shutdown();
+    }
+
+    @DisplayName("data url 이미지를 저장하고 image key 를 돌려준다")
+    @Test
+    void resolveImageKey_dataUrl() throws Exception {
+        String key = imageService.resolveImageKey(dataUrl(png(50, 50)));
+
+        assertTrue(ImageStore.isKey(key));
+        assertTrue(imageStore.exists(key));
+    }
+
+    @DisplayName("data url 이라도 픽셀 수가 너무 많은 이미지는 저장하지 않는다")
+    @Test
+    void resolveImageKey_dataUrlTooManyPixels() throws Exception {
+        String dataUrl = dataUrl(png(200, 100));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> imageService.resolveImageKey(dataUrl));
+        assertEquals("이미지 해상도가 너무 큽니다.", e.getMessage());
+        try (var files = Files.walk(root)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+
+    @DisplayName("이미지가 아닌 data url 은 저장하지 않는다")
+    @Test
+    void resolveImageKey_dataUrlNotImage() {
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString("not an image".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> imageService.resolveImageKey(dataUrl));
+    }
+
+    private static String dataUrl(byte[] png) {
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY), "png", out);
+        return out.toByteArray();
+    }
+
+}
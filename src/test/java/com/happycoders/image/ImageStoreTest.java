@@ -0,0 +1,110 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStore imageStore;
+
+    @BeforeEach
+    void beforeEach() {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setDir(root.toString());
+        imageStore = new ImageStore(imageProperties);
+    }
+
+    @DisplayName("내용의 SHA-256 해시를 key 로 {해시 앞 2글자}/{해시} 에 저장한다")
+    @Test
+    void store_contentAddressed() throws Exception {
+        byte[] bytes = "image".getBytes();
+
+        String key = imageStore.store(bytes);
+
+        assertEquals(sha256(bytes), key);
+        assertTrue(ImageStore.isKey(key));
+        Path file = root.resolve(key.substring(0, 2)).resolve(key);
+        assertEquals(file, imageStore.find(key).orElseThrow());
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @DisplayName("같은 내용은 byte 배열로 올리든 스트림으로 올리든 한 번만 저장한다")
+    @Test
+    void store_sameContentOnce() throws Exception {
+        byte[] bytes = "image".getBytes();
+
+        String first = imageStore.store(bytes);
+        String second = imageStore.store(new ByteArrayInputStream(bytes), file -> { });
+
+        assertEquals(first, second);
+        assertEquals(1, countFiles(root.resolve(first.substring(0, 2))));
+        assertEquals(0, countFiles(root.resolve("tmp")));
+    }
+
+    @DisplayName("검증에 실패한 스트림은 저장하지 않고 임시 파일도 남기지 않는다")
+    @Test
+    void store_invalid() throws Exception {
+        byte[] bytes = "not an image".getBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> imageStore.store(new ByteArrayInputStream(bytes), file -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+
+        assertFalse(imageStore.exists(sha256(bytes)));
+        assertEquals(0, countFiles(root.resolve("tmp")));
+    }
+
+    @DisplayName("크기별 이미지는 원본 옆에 {해시}_{너비} 로 저장한다")
+    @Test
+    void store_rendition() {
+        String key = imageStore.store("image".getBytes());
+        assertTrue(imageStore.find(key, ImageRendition.AVATAR_24).isEmpty());
+
+        imageStore.store(key, ImageRendition.AVATAR_24, out -> out.write(1));
+
+        assertEquals(root.resolve(key.substring(0, 2)).resolve(key + "_24"), imageStore.find(key, ImageRendition.AVATAR_24).orElseThrow());
+        assertFalse(imageStore.exists(key, ImageRendition.AVATAR_64));
+    }
+
+    @DisplayName("key 형식이 아닌 값으로는 파일을 찾지 않는다")
+    @Test
+    void find_invalidKey() {
+        assertFalse(ImageStore.isKey("../../etc/passwd"));
+        assertFalse(ImageStore.isKey("ABCDEF"));
+        assertTrue(imageStore.find("../../etc/passwd").isEmpty());
+        assertFalse(imageStore.exists(null));
+    }
+
+    private long countFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private String sha256(byte[] bytes) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+}
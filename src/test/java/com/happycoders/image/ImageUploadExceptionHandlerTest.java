@@ -0,0 +1,27 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageUploadExceptionHandlerTest {
+
+    @DisplayName("multipart 크기 제한을 넘으면 업로드 endpoint 와 같은 JSON 400 으로 답한다")
+    @Test
+    void handleMaxUploadSizeExceeded() {
+        ImageUploadExceptionHandler handler = new ImageUploadExceptionHandler(new ImageProperties());
+
+        ResponseEntity<Map<String, String>> response = handler.handleMaxUploadSizeExceeded(new MaxUploadSizeExceededException(5 * 1024 * 1024));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("이미지 파일은 5MB 까지 올릴 수 있습니다.", response.getBody().get("error"));
+    }
+
+}
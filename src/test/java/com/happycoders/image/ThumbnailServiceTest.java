@@ -0,0 +1,129 @@
+package com.happycoders.image;
+
+import com.happycoders.config.ImageProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// worker 하나와 크기 2 짜리 큐로 만들고, worker 를 latch 로 막아 둔 채 큐에 쌓이는 작업을 본다.
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStore imageStore;
+
+    private ThreadPoolExecutor executor;
+
+    private ThumbnailService thumbnailService;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setDir(root.toString());
+        imageStore = new ImageStore(imageProperties);
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2), new ThreadPoolExecutor.AbortPolicy());
+        thumbnailService = new ThumbnailService(imageStore, executor);
+
+        release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blocked.await(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        thumbnailService.shutdown();
+    }
+
+    @DisplayName("같은 이미지의 같은 크기는 한 번만 큐에 넣는다")
+    @Test
+    void generate_sameRenditionOnce() throws Exception {
+        String key = imageStore.store(png(200));
+
+        thumbnailService.generate(key, ImageRendition.AVATARS);
+        thumbnailService.generate(key, ImageRendition.AVATARS);
+        thumbnailService.generate(key, EnumSet.of(ImageRendition.AVATAR_24));
+
+        assertEquals(1, executor.getQueue().size());
+        drain();
+        for (ImageRendition rendition : ImageRendition.AVATARS) {
+            assertTrue(imageStore.exists(key, rendition), rendition.name());
+        }
+    }
+
+    @DisplayName("같은 이미지라도 다른 크기를 요청하면 그 크기를 따로 만든다")
+    @Test
+    void generate_otherRendition() throws Exception {
+        String key = imageStore.store(png(200));
+
+        thumbnailService.generate(key, EnumSet.of(ImageRendition.AVATAR_24));
+        thumbnailService.generate(key, EnumSet.of(ImageRendition.AVATAR_24, ImageRendition.AVATAR_64));
+        thumbnailService.generate(key, EnumSet.of(ImageRendition.AVATAR_24, ImageRendition.AVATAR_64));
+
+        assertEquals(2, executor.getQueue().size());
+        drain();
+        assertTrue(imageStore.exists(key, ImageRendition.AVATAR_24));
+        assertTrue(imageStore.exists(key, ImageRendition.AVATAR_64));
+        assertFalse(imageStore.exists(key, ImageRendition.AVATAR_128));
+    }
+
+    @DisplayName("큐가 가득 차서 버려진 작업은 진행 중으로 남지 않아 다음 요청 때 다시 만든다")
+    @Test
+    void generate_rejected() throws Exception {
+        String first = imageStore.store(png(200));
+        String second = imageStore.store(png(300));
+        String third = imageStore.store(png(400));
+        thumbnailService.generate(first, ImageRendition.AVATARS);
+        thumbnailService.generate(second, ImageRendition.AVATARS);
+
+        thumbnailService.generate(third, ImageRendition.AVATARS); // AbortPolicy 로 거절된다.
+
+        assertEquals(2, executor.getQueue().size());
+        drain();
+        assertTrue(imageStore.exists(second, ImageRendition.AVATAR_24));
+        assertFalse(imageStore.exists(third, ImageRendition.AVATAR_24));
+
+        thumbnailService.generate(third, ImageRendition.AVATARS);
+        drain();
+        assertTrue(imageStore.exists(third, ImageRendition.AVATAR_24));
+    }
+
+    private void drain() throws Exception {
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (executor.getCompletedTaskCount() < executor.getTaskCount()) {
+            assertTrue(System.nanoTime() < deadline, "thumbnail tasks did not finish");
+            Thread.sleep(10);
+        }
+    }
+
+    private byte[] png(int width) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, width, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+}
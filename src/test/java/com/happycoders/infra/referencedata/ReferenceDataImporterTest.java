@@ -0,0 +1,133 @@
+package com.happycoders.infra.referencedata;
+
+import com.happycoders.domain.Tag;
+import com.happycoders.domain.Zone;
+import com.happycoders.tag.TagDictionary;
+import com.happycoders.zone.ZoneDataSet;
+import com.happycoders.zone.ZoneRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 기동할 때처럼 importer 가 직접 transaction 을 열고 commit 하므로 테스트 transaction 을 쓰지 않고, 넣은 행은 직접 지운다.
+@SpringBootTest
+class ReferenceDataImporterTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    ReferenceDataImporter referenceDataImporter;
+
+    @Autowired
+    ZoneDataSet zoneDataSet;
+
+    @Autowired
+    ZoneRepository zoneRepository;
+
+    @Autowired
+    TagDictionary tagDictionary;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long legacyZoneId;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from \"tag\" where \"title\" like 'import-tag-%'");
+        tagDictionary.reload();
+        if (legacyZoneId != null) {
+            zoneRepository.deleteById(legacyZoneId);
+        }
+    }
+
+    @DisplayName("batch 크기마다 flush, clear 해서 영속성 컨텍스트가 batch 크기를 넘지 않는다")
+    @Test
+    void importDataSet_flushAndClearEveryBatch() {
+        ImportTagDataSet dataSet = new ImportTagDataSet();
+
+        assertEquals(ROWS, referenceDataImporter.importDataSet(dataSet));
+
+        assertTrue(dataSet.maxManagedEntities > 0);
+        assertTrue(dataSet.maxManagedEntities < 50, "managed entities: " + dataSet.maxManagedEntities);
+        assertEquals(ROWS, countImportedTags());
+        // 이벤트를 받은 사전이 다시 읽었다.
+        assertTrue(tagDictionary.find("import-tag-" + ROWS).isPresent());
+    }
+
+    @DisplayName("다시 기동해서 실행해도 이미 있는 행은 넣지 않는다")
+    @Test
+    void importDataSet_idempotent() {
+        referenceDataImporter.importDataSet(new ImportTagDataSet());
+
+        assertEquals(0, referenceDataImporter.importDataSet(new ImportTagDataSet()));
+        assertEquals(ROWS, countImportedTags());
+    }
+
+    @DisplayName("zone_seq 가 없던 DB 의 지역 id 보다 sequence 를 뒤로 옮긴다")
+    @Test
+    void importZones_movesSequencePastLegacyIds() {
+        Long maxId = jdbcTemplate.queryForObject("select max(\"id\") from \"zone\"", Long.class);
+        legacyZoneId = (maxId != null ? maxId : 0) + 1000;
+        jdbcTemplate.update("insert into \"zone\" (\"id\", \"city\", \"local_name_of_city\", \"province\") values (?, ?, ?, ?)",
+                legacyZoneId, "Legacy", "예전 지역", "Legacy province");
+
+        assertEquals(0, referenceDataImporter.importDataSet(zoneDataSet));
+
+        long next = jdbcTemplate.queryForObject("call next value for \"zone_seq\"", Long.class);
+        assertTrue(next - 49 > legacyZoneId, "zone_seq " + next + " overlaps zone id " + legacyZoneId);
+        Zone zone = zoneRepository.save(Zone.builder().city("After").localNameOfCity("이후 지역").province("After province").build());
+        assertNotEquals(legacyZoneId, zone.getId());
+        zoneRepository.delete(zone);
+    }
+
+    private long countImportedTags() {
+        return jdbcTemplate.queryForObject("select count(*) from \"tag\" where \"title\" like 'import-tag-%'", Long.class);
+    }
+
+    private class ImportTagDataSet implements ReferenceDataSet<Tag> {
+
+        private int maxManagedEntities;
+
+        @Override
+        public String getName() {
+            return "tags";
+        }
+
+        @Override
+        public String getResource() {
+            return "referencedata/import-tags.csv";
+        }
+
+        @Override
+        public Tag parse(String[] columns) {
+            maxManagedEntities = Math.max(maxManagedEntities, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+            return Tag.builder().title(columns[0]).build();
+        }
+
+        @Override
+        public String keyOf(Tag tag) {
+            return tag.getTitle();
+        }
+
+        @Override
+        public Set<String> existingKeys(EntityManager entityManager) {
+            return new HashSet<>(entityManager.createQuery("select t.title from Tag t", String.class).getResultList());
+        }
+
+    }
+
+}
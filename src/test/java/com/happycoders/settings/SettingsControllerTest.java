@@ -7,10 +7,16 @@ import com.happycoders.account.AccountService;
 import com.happycoders.domain.Account;
 import com.happycoders.domain.Tag;
 import com.happycoders.domain.Zone;
+import com.happycoders.tag.TagAutocompleteIndex;
+import com.happycoders.tag.TagDictionary;
 import com.happycoders.tag.TagForm;
+import com.happycoders.tag.TagService;
+import com.happycoders.tag.TagsForm;
 import com.happycoders.zone.ZoneForm;
 import com.happycoders.tag.TagRepository;
+import com.happycoders.zone.ZoneRegistry;
 import com.happycoders.zone.ZoneRepository;
+import com.happycoders.zone.ZonesForm;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,14 +25,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.transaction.AfterTransaction;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static com.happycoders.settings.SettingsController.*;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -53,9 +72,21 @@ class SettingsControllerTest {
     @Autowired
     TagRepository tagRepository;
 
+    @Autowired
+    TagService tagService;
+
+    @Autowired
+    TagAutocompleteIndex tagAutocompleteIndex;
+
+    @Autowired
+    TagDictionary tagDictionary;
+
     @Autowired
     ZoneRepository zoneRepository;
 
+    @Autowired
+    ZoneRegistry zoneRegistry;
+
     private Zone testZone = Zone.builder()
             .city("testCity")
             .localNameOfCity("testLocalNameOfCity")
@@ -65,6 +96,7 @@ class SettingsControllerTest {
     @BeforeEach
     void beforeEach() {
         zoneRepository.save(testZone);
+        zoneRegistry.refresh(); // 테스트용 지역을 직접 저장했으므로 registry 를 다시 읽는다.
     }
 
     @AfterEach
@@ -73,6 +105,15 @@ class SettingsControllerTest {
         zoneRepository.deleteAll();
     }
 
+    // 태그는 TagService 가 테스트 transaction 과 별개로 commit 하므로, 테스트 transaction 이 끝난 뒤에 직접 지운다.
+    @AfterTransaction
+    void deleteCommittedTags() {
+        tagRepository.deleteAll(tagRepository.findByTitleIn(
+                List.of("newTag", "oldTag", "keepTag", "bulkTag1", "bulkTag2", "자바", "자바스크립트", "장보기")));
+        tagDictionary.reload();
+        tagAutocompleteIndex.reload();
+    }
+
     @WithAccount(value = "minjae")
     @DisplayName("계정의 태그 수정 폼")
     @Test
@@ -80,7 +121,7 @@ class SettingsControllerTest {
         mockMvc.perform(get("/" + SETTINGS + TAGS))
                 .andExpect(view().name(SETTINGS + TAGS))
                 .andExpect(model().attributeExists("account"))
-                .andExpect(model().attributeExists("whiteList"))
+                .andExpect(model().attribute("autocompleteUrl", "/tags/autocomplete"))
                 .andExpect(model().attributeExists("tags"));
     }
 
@@ -108,7 +149,7 @@ class SettingsControllerTest {
     @Test
     void removeTag() throws Exception {
         Account account = accountRepository.findByNickname("minjae");
-        Tag newTag = tagRepository.save(Tag.builder().title("newTag").build());
+        Tag newTag = tagService.findOrCreate("newTag");
         accountService.addTag(account, newTag);
 
         assertTrue(account.getTags().contains(newTag));
@@ -126,6 +167,80 @@ class SettingsControllerTest {
         assertFalse(account.getTags().contains(newTag));
     }
 
+    @WithAccount(value = "minjae")
+    @DisplayName("계정의 태그를 한 번에 수정 - 없는 태그는 빼고, 새 태그는 만들어서 더한다")
+    @Test
+    void updateTags() throws Exception {
+        Account account = accountRepository.findByNickname("minjae");
+        accountService.addTag(account, tagService.findOrCreate("oldTag"));
+        accountService.addTag(account, tagService.findOrCreate("keepTag"));
+
+        TagsForm tagsForm = new TagsForm();
+        tagsForm.setTagTitles(List.of("keepTag", "bulkTag1", "bulkTag2"));
+
+        mockMvc.perform(post("/" + SETTINGS + TAGS)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(tagsForm))
+                                .with(csrf())
+                )
+                .andExpect(status().isOk());
+
+        Set<String> titles = accountService.getTags(account).stream().map(Tag::getTitle).collect(Collectors.toSet());
+        assertEquals(Set.of("keepTag", "bulkTag1", "bulkTag2"), titles);
+    }
+
+    @WithAccount(value = "minjae")
+    @DisplayName("태그 자동완성 - prefix 와 초성으로 찾고, 많이 쓰인 태그가 먼저")
+    @Test
+    void autocompleteTags() throws Exception {
+        Account account = accountRepository.findByNickname("minjae");
+        tagService.findOrCreate("자바");
+        Tag javascript = tagService.findOrCreate("자바스크립트");
+        tagService.findOrCreate("장보기");
+        accountService.addTag(account, javascript);
+        tagAutocompleteIndex.reload(); // 사용 수는 주기적으로 다시 세므로 직접 다시 읽는다.
+
+        mockMvc.perform(get("/tags/autocomplete").param("q", "자바"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("자바스크립트"))
+                .andExpect(jsonPath("$[1]").value("자바"));
+
+        mockMvc.perform(get("/tags/autocomplete").param("q", "ㅈㅂ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0]").value("자바스크립트"))
+                .andExpect(jsonPath("$[1]").value("자바"))
+                .andExpect(jsonPath("$[2]").value("장보기"));
+    }
+
+    @WithAccount(value = "minjae")
+    @DisplayName("태그 자동완성 - 색인이 바뀌지 않았으면 ETag 로 304 를 돌려준다")
+    @Test
+    void autocompleteTags_notModified() throws Exception {
+        tagService.findOrCreate("자바");
+        tagAutocompleteIndex.reload();
+
+        String etag = mockMvc.perform(get("/tags/autocomplete").param("q", "자바"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$[0]").value("자바"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/tags/autocomplete").param("q", "자바").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // 새 태그가 들어가면 version 이 바뀌므로 다시 내려준다.
+        tagAutocompleteIndex.add(tagService.findOrCreate("자바스크립트"));
+        mockMvc.perform(get("/tags/autocomplete").param("q", "자바").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
 
     //    @WithUserDetails(value = "minjae", setupBefore = TestExecutionEvent.TEST_EXECUTION) //@BeforeEach 전에 실행이 되는 bug가 있다.
     @WithAccount(value = "minjae") //test를 위해서 만든 annotation
@@ -329,6 +444,32 @@ class SettingsControllerTest {
         assertTrue(minjae.getZones().contains(zone));
     }
 
+    @WithAccount(value = "minjae")
+    @DisplayName("지역 정보를 한 번에 수정 - 없는 지역이 있으면 400")
+    @Test
+    void updateZones() throws Exception {
+        ZonesForm zonesForm = new ZonesForm();
+        zonesForm.setZoneNames(List.of(testZone.toString(), "Nowhere(없음)/None"));
+
+        mockMvc.perform(post(ROOT + SETTINGS + ZONES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zonesForm))
+                        .with(csrf())
+                )
+                .andExpect(status().isBadRequest());
+
+        zonesForm.setZoneNames(List.of(testZone.toString()));
+        mockMvc.perform(post(ROOT + SETTINGS + ZONES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zonesForm))
+                        .with(csrf())
+                )
+                .andExpect(status().isOk());
+
+        Account minjae = accountRepository.findByNickname("minjae");
+        assertEquals(Set.of(testZone.toString()), accountService.getZones(minjae).stream().map(Zone::toString).collect(Collectors.toSet()));
+    }
+
     @WithAccount(value = "minjae")
     @DisplayName("지역 정보 삭제")
     @Test
@@ -352,5 +493,55 @@ class SettingsControllerTest {
         assertFalse(minjae.getZones().contains(zone));
     }
 
+    @WithAccount(value = "minjae")
+    @DisplayName("프로필 이미지 업로드 - 입력값 정상")
+    @Test
+    void uploadProfileImage() throws Exception {
+        mockMvc.perform(multipart("/" + SETTINGS + PROFILE + "/image")
+                                .file(new MockMultipartFile("image", "profile.png", "image/png", png(100, 100)))
+                                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.image", matchesPattern("[0-9a-f]{64}")));
+    }
+
+    @WithAccount(value = "minjae")
+    @DisplayName("프로필 이미지 업로드 - content type 이 이미지여도 매직 넘버가 이미지가 아니면 400")
+    @Test
+    void uploadProfileImage_notImage() throws Exception {
+        mockMvc.perform(multipart("/" + SETTINGS + PROFILE + "/image")
+                                .file(new MockMultipartFile("image", "profile.png", "image/png", "<script>alert(1)</script>".getBytes()))
+                                .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("지원하지 않는 이미지 형식입니다."));
+    }
+
+    @WithAccount(value = "minjae")
+    @DisplayName("프로필 이미지 업로드 - 파일은 작아도 픽셀 수가 제한을 넘으면 400")
+    @Test
+    void uploadProfileImage_tooManyPixels() throws Exception {
+        mockMvc.perform(multipart("/" + SETTINGS + PROFILE + "/image")
+                                .file(new MockMultipartFile("image", "profile.png", "image/png", png(6000, 5000)))
+                                .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("이미지 해상도가 너무 큽니다."));
+    }
+
+    @WithAccount(value = "minjae")
+    @DisplayName("프로필 이미지 업로드 - 빈 파일은 400")
+    @Test
+    void uploadProfileImage_empty() throws Exception {
+        mockMvc.perform(multipart("/" + SETTINGS + PROFILE + "/image")
+                                .file(new MockMultipartFile("image", "profile.png", "image/png", new byte[0]))
+                                .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    // 흑백 이미지는 픽셀당 1 bit 이고 압축도 잘 되므로 큰 해상도의 이미지를 작은 파일로 만들 수 있다.
+    private byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY), "png", out);
+        return out.toByteArray();
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.happycoders.study;
+
+import com.happycoders.account.AccountRepository;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.Study;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 예전 DB 처럼 study 테이블에 full_description 컬럼을 만들어야 한다. DDL 은 transaction 을 commit 하므로 테스트 transaction 을 쓰지 않고 직접 지운다.
+@SpringBootTest
+class StudyContentMigrationTest {
+
+    @Autowired
+    StudyContentMigration studyContentMigration;
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    StudyRepository studyRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Account manager;
+
+    @BeforeEach
+    void beforeEach() {
+        jdbcTemplate.execute("alter table \"study\" add column \"full_description\" clob");
+        manager = accountRepository.save(Account.builder().nickname("legacy-manager").email("legacy@email.com").password("12345678").build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        for (String path : new String[]{"legacy-study", "migrated-study"}) {
+            studyService.remove(studyService.getStudyToUpdateStatus(manager, path));
+        }
+        accountRepository.delete(manager);
+        jdbcTemplate.execute("alter table \"study\" drop column \"full_description\"");
+    }
+
+    @DisplayName("예전 full_description 컬럼의 값을 StudyContent 로 옮기고, 다시 실행해도 그대로다")
+    @Test
+    void migrate() {
+        Long legacyId = createStudy("legacy-study", null);
+        Long migratedId = createStudy("migrated-study", "<p>new</p>");
+        jdbcTemplate.update("update \"study\" set \"full_description\" = ? where \"id\" = ?", "<p>legacy</p>", legacyId);
+        jdbcTemplate.update("update \"study\" set \"full_description\" = ? where \"id\" = ?", "<p>stale</p>", migratedId);
+
+        studyContentMigration.migrate();
+        studyContentMigration.migrate();
+
+        assertEquals("<p>legacy</p>", studyRepository.findStudyWithAllByPath("legacy-study").getFullDescription());
+        assertEquals("<p>new</p>", studyRepository.findStudyWithAllByPath("migrated-study").getFullDescription());
+        assertNull(jdbcTemplate.queryForObject("select \"full_description\" from \"study\" where \"id\" = ?", String.class, legacyId));
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from \"study_content\"", Long.class));
+    }
+
+    private Long createStudy(String path, String fullDescription) {
+        Study study = new Study();
+        study.setPath(path);
+        study.setTitle(path);
+        study.setShortDescription("short description");
+        if (fullDescription != null) {
+            study.setFullDescription(fullDescription);
+        }
+        return studyService.createNewStudy(study, manager).getId();
+    }
+
+}
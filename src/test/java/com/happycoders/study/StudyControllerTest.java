@@ -4,6 +4,16 @@ import com.happycoders.WithAccount;
 import com.happycoders.account.AccountRepository;
 import com.happycoders.domain.Account;
 import com.happycoders.domain.Study;
+import com.happycoders.domain.Tag;
+import com.happycoders.domain.Zone;
+import com.happycoders.study.query.AccountSummary;
+import com.happycoders.study.query.StudyView;
+import com.happycoders.study.query.TagSummary;
+import com.happycoders.study.query.ZoneSummary;
+import com.happycoders.study.search.StudyDocument;
+import com.happycoders.study.search.StudySearchIndex;
+import com.happycoders.tag.TagRepository;
+import com.happycoders.zone.ZoneRepository;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +23,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -37,6 +52,20 @@ class StudyControllerTest {
     @Autowired
     protected AccountRepository accountRepository;
 
+    @Autowired
+    protected StudySearchIndex studySearchIndex;
+
+    @Autowired
+    protected TagRepository tagRepository;
+
+    @Autowired
+    protected ZoneRepository zoneRepository;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    private Zone testZone;
+
     @Test
     @WithAccount("minjae")
     @DisplayName("스터디 개설 폼 조회")
@@ -88,37 +117,127 @@ class StudyControllerTest {
     }
 
     @Test
-    @WithAccount("keesun")
-    @DisplayName("스터디 조회")
+    @WithAccount("minjae")
+    @DisplayName("스터디 조회 - 소개, 태그, 지역과 현재 사용자의 관리자 여부")
     void viewStudy() throws Exception {
-        Study study = new Study();
-        study.setPath("test-path");
-        study.setTitle("test study");
-        study.setShortDescription("short description");
-        study.setFullDescription("<p>full description</p>");
-
-        Account keesun = accountRepository.findByNickname("keesun");
-        studyService.createNewStudy(study, keesun);
+        Account minjae = accountRepository.findByNickname("minjae");
+        Study study = createStudy("test-path", minjae);
 
-        mockMvc.perform(get("/study/test-path"))
+        StudyView view = (StudyView) mockMvc.perform(get("/study/test-path"))
                 .andExpect(view().name("study/view"))
                 .andExpect(model().attributeExists("account"))
-                .andExpect(model().attributeExists("study"));
+                .andExpect(model().attributeExists("study"))
+                .andReturn().getModelAndView().getModel().get("study");
+
+        assertEquals(study.getId(), view.getId());
+        assertEquals("test-path", view.getPath());
+        assertEquals("test study", view.getTitle());
+        assertEquals("short description", view.getShortDescription());
+        assertEquals("<p>full description</p>", view.getFullDescription());
+        assertEquals(List.of("JPA", "Spring"), view.getTags().stream().map(TagSummary::getTitle).collect(Collectors.toList()));
+        assertEquals(List.of(testZone.getId()), view.getZones().stream().map(ZoneSummary::getId).collect(Collectors.toList()));
+        assertEquals(1, view.getManagerCount());
+        assertEquals(0, view.getMemberCount());
+        assertEquals(minjae.getId(), view.getViewerId());
+        assertTrue(view.isViewerManager());
+        assertFalse(view.isViewerMember());
+        assertTrue(view.getMembers().isEmpty()); // 소개 화면에서는 멤버 목록을 읽지 않는다.
     }
-}
-
-
-
-
-
-
-
-
-
-
-
-
 
+    @Test
+    @WithAccount("minjae")
+    @DisplayName("스터디 멤버 조회 - 관리자, 멤버 목록과 현재 사용자의 멤버 여부")
+    void viewStudyMembers() throws Exception {
+        Account minjae = accountRepository.findByNickname("minjae");
+        Account manager = accountRepository.save(Account.builder().nickname("manager").email("manager@email.com").password("12345678").build());
+        createStudy("test-path", manager);
+        studyService.addMember("test-path", minjae);
+        entityManager.flush();
+
+        StudyView view = (StudyView) mockMvc.perform(get("/study/test-path/members"))
+                .andExpect(view().name("study/members"))
+                .andExpect(model().attributeExists("account"))
+                .andExpect(model().attributeExists("study"))
+                .andReturn().getModelAndView().getModel().get("study");
+
+        assertEquals(List.of("manager"), view.getManagers().stream().map(AccountSummary::getNickname).collect(Collectors.toList()));
+        assertEquals(List.of("minjae"), view.getMembers().stream().map(AccountSummary::getNickname).collect(Collectors.toList()));
+        assertEquals(1, view.getManagerCount());
+        assertEquals(1, view.getMemberCount());
+        assertTrue(view.isViewerMember());
+        assertFalse(view.isViewerManager());
+        assertEquals(List.of("JPA", "Spring"), view.getTags().stream().map(TagSummary::getTitle).collect(Collectors.toList()));
+        assertEquals(1, view.getZones().size());
+        assertNull(view.getFullDescription()); // 멤버 화면에서는 상세 소개를 읽지 않는다.
+    }
 
+    private Study createStudy(String path, Account manager) {
+        Study study = new Study();
+        study.setPath(path);
+        study.setTitle("test study");
+        study.setShortDescription("short description");
+        study.setFullDescription("<p>full description</p>");
+        Study created = studyService.createNewStudy(study, manager);
+
+        created.getTags().add(tagRepository.save(Tag.builder().title("Spring").build()));
+        created.getTags().add(tagRepository.save(Tag.builder().title("JPA").build()));
+        testZone = zoneRepository.save(Zone.builder().city("testCity").localNameOfCity("테스트시").province("testProvince").build());
+        created.getZones().add(testZone);
+        entityManager.flush();
+        entityManager.clear();
+        return created;
+    }
 
+    @Test
+    @DisplayName("스터디 검색 - 다음 페이지는 이전 페이지의 마지막 스터디 다음부터")
+    void searchStudy() throws Exception {
+        Account minjae = accountRepository.save(Account.builder().nickname("minjae").email("3mins1@naver.com").password("12345678").build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            Study study = new Study();
+            study.setPath("spring-" + i);
+            study.setTitle("Spring study " + i);
+            study.setShortDescription("short description");
+            study.setFullDescription("<p>full description</p>");
+            study.setPublished(true);
+            study.setPublishedDateTime(now.minusDays(i));
+            studyService.createNewStudy(study, minjae);
+        }
+
+        mockMvc.perform(get("/search/study").param("keyword", "spring").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studies.length()").value(2))
+                .andExpect(jsonPath("$.studies[0].path").value("spring-0"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        Study last = studyRepository.findByPath("spring-1");
+        mockMvc.perform(get("/search/study").param("keyword", "spring").param("size", "2")
+                        .param("lastPublishedDateTime", last.getPublishedDateTime().toString())
+                        .param("lastId", String.valueOf(last.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studies.length()").value(1))
+                .andExpect(jsonPath("$.studies[0].path").value("spring-2"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
 
+    @Test
+    @DisplayName("스터디 전문 검색 - 모든 검색어를 포함한 공개 스터디만, 제목에 있으면 먼저")
+    void searchStudyText() throws Exception {
+        // 테스트 transaction 은 commit 되지 않으므로 인덱스에 직접 넣는다.
+        studySearchIndex.index(new StudyDocument(-1L, "jpa-title", "JPA 스터디", "같이 공부해요", "<p>스프링 데이터</p>", true, false));
+        studySearchIndex.index(new StudyDocument(-2L, "jpa-description", "백엔드 모임", "jpa 를 공부합니다", "<p>스터디 <b>환영</b></p>", true, false));
+        studySearchIndex.index(new StudyDocument(-3L, "jpa-draft", "JPA 스터디 준비중", "", "", false, false));
+        try {
+            mockMvc.perform(get("/search/study/text").param("q", "jpa 스터디"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].path").value("jpa-title"))
+                    .andExpect(jsonPath("$[0].title").value("<em>JPA</em> <em>스터디</em>"))
+                    .andExpect(jsonPath("$[1].path").value("jpa-description"));
+        } finally {
+            studySearchIndex.remove(-1L);
+            studySearchIndex.remove(-2L);
+            studySearchIndex.remove(-3L);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.happycoders.study;
+
+import com.happycoders.account.AccountRepository;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.Study;
+import com.happycoders.domain.Tag;
+import com.happycoders.domain.Zone;
+import com.happycoders.tag.TagRepository;
+import com.happycoders.zone.ZoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Transactional
+@SpringBootTest
+class StudyRepositoryTest {
+
+    private static final int MEMBERS = 60;
+
+    private static final int TAGS = 10;
+
+    private static final int ZONES = 5;
+
+    private static final int WARMUP_ROUNDS = 10;
+
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Autowired
+    StudyRepository studyRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    ZoneRepository zoneRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @BeforeEach
+    void beforeEach() {
+        Study study = new Study();
+        study.setPath("big-study");
+        study.setTitle("big study");
+        study.setShortDescription("short description");
+        study.setFullDescription("<p>full description</p>");
+
+        Account manager = accountRepository.save(Account.builder().nickname("manager").email("manager@email.com").password("12345678").build());
+        study.getManagers().add(manager);
+        for (int i = 0; i < MEMBERS; i++) {
+            study.getMembers().add(accountRepository.save(Account.builder()
+                    .nickname("member" + i).email("member" + i + "@email.com").password("12345678").build()));
+        }
+        for (int i = 0; i < TAGS; i++) {
+            study.getTags().add(tagRepository.save(Tag.builder().title("benchmark-tag" + i).build()));
+        }
+        for (int i = 0; i < ZONES; i++) {
+            study.getZones().add(zoneRepository.save(Zone.builder()
+                    .city("city" + i).localNameOfCity("도시" + i).province("province").build()));
+        }
+        studyRepository.save(study);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @DisplayName("스터디 조회 - 컬렉션마다 따로 읽어서 결과 행 수가 곱이 아니라 합이 된다.")
+    @Test
+    void findStudyWithAllByPath() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            findStudyWithSingleJoin();
+            long joinedStatements = statistics.getPrepareStatementCount();
+            long joinedRows = fetchedRows(statistics);
+
+            statistics.clear();
+            Study study = studyRepository.findStudyWithAllByPath("big-study");
+            long separateStatements = statistics.getPrepareStatementCount();
+            long separateRows = fetchedRows(statistics);
+
+            // 스터디 (+ 소개글) 1 번, 컬렉션마다 1 번
+            assertEquals(1, joinedStatements);
+            assertEquals(MEMBERS * TAGS * ZONES, joinedRows);
+            assertEquals(5, separateStatements);
+            assertEquals(1 + TAGS + ZONES + 1 + MEMBERS, separateRows);
+
+            assertTrue(Hibernate.isInitialized(study.getTags()));
+            assertTrue(Hibernate.isInitialized(study.getZones()));
+            assertTrue(Hibernate.isInitialized(study.getManagers()));
+            assertTrue(Hibernate.isInitialized(study.getMembers()));
+            assertEquals(TAGS, study.getTags().size());
+            assertEquals(ZONES, study.getZones().size());
+            assertEquals(1, study.getManagers().size());
+            assertEquals(MEMBERS, study.getMembers().size());
+            assertEquals("<p>full description</p>", study.getFullDescription());
+            entityManager.clear();
+
+            log.info("single join : {} statements, {} rows, {} µs / per collection : {} statements, {} rows, {} µs",
+                    joinedStatements, joinedRows, averageMicros(this::findStudyWithSingleJoin),
+                    separateStatements, separateRows, averageMicros(() -> studyRepository.findStudyWithAllByPath("big-study")));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private void findStudyWithSingleJoin() {
+        entityManager.createQuery(
+                "select s from Study s left join fetch s.tags left join fetch s.zones " +
+                        "left join fetch s.managers left join fetch s.members where s.path = :path", Study.class)
+                .setParameter("path", "big-study")
+                .getResultList();
+    }
+
+    // 실행한 쿼리마다 JDBC ResultSet 에서 읽은 행 수를 더한다.
+    private static long fetchedRows(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+    }
+
+    // JIT 과 커넥션 풀이 데워진 뒤의 평균 시간을 잰다. 매번 영속성 컨텍스트를 비워 DB 에서 다시 읽게 한다.
+    private long averageMicros(Runnable query) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            query.run();
+            entityManager.clear();
+        }
+        long total = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            total += System.nanoTime() - start;
+            entityManager.clear();
+        }
+        return total / MEASURED_ROUNDS / 1000;
+    }
+
+    @DisplayName("스터디 조회 - 없는 경로")
+    @Test
+    void findStudyWithAllByPath_notFound() {
+        assertNull(studyRepository.findStudyWithAllByPath("no-such-study"));
+    }
+
+}
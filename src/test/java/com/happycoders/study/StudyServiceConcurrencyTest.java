@@ -0,0 +1,92 @@
+package com.happycoders.study;
+
+import com.happycoders.account.AccountRepository;
+import com.happycoders.counter.SiteCounterService;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.SiteCounter;
+import com.happycoders.domain.Study;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 서로 다른 transaction 이 같은 스터디 행을 쓰는 상황을 만들어야 하므로 테스트 transaction 을 쓰지 않고, 만든 데이터는 직접 지운다.
+@SpringBootTest
+class StudyServiceConcurrencyTest {
+
+    private static final String PATH = "concurrent-study";
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    StudyRepository studyRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    SiteCounterService siteCounterService;
+
+    private Account manager;
+
+    private Account member;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = accountRepository.save(Account.builder().nickname("concurrent-manager").email("concurrent-manager@email.com").password("12345678").build());
+        member = accountRepository.save(Account.builder().nickname("concurrent-member").email("concurrent-member@email.com").password("12345678").build());
+        Study study = new Study();
+        study.setPath(PATH);
+        study.setTitle("concurrent study");
+        study.setShortDescription("short description");
+        studyService.createNewStudy(study, manager);
+    }
+
+    @AfterEach
+    void afterEach() {
+        // 공개한 스터디는 StudyService#remove 로 지울 수 없으므로 직접 지운다.
+        studyRepository.deleteById(studyRepository.findByPath(PATH).getId());
+        siteCounterService.decrease(SiteCounter.STUDIES);
+        accountRepository.delete(member);
+        accountRepository.delete(manager);
+    }
+
+    @Test
+    @DisplayName("공개하려고 읽어 둔 스터디에 그 사이 가입이 commit 되어도, 공개가 가입자 수를 덮어쓰지 않는다")
+    void publish_whileJoining() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+
+        // controller 처럼 스터디를 읽어 둔 뒤, 가입이 commit 되고 나서 공개한다.
+        Future<?> publish = executor.submit(() -> {
+            Study study = studyService.getStudyToUpdateStatus(manager, PATH);
+            loaded.countDown();
+            joined.await();
+            studyService.publish(study);
+            return null;
+        });
+        Future<?> join = executor.submit(() -> {
+            loaded.await();
+            studyService.addMember(PATH, member);
+            joined.countDown();
+            return null;
+        });
+        join.get(10, TimeUnit.SECONDS);
+        publish.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Study study = studyRepository.findByPath(PATH);
+        assertTrue(study.isPublished());
+        assertEquals(1, study.getMemberCount());
+        assertEquals(1, study.getManagerCount());
+    }
+
+}
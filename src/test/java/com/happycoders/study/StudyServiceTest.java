@@ -0,0 +1,158 @@
+package com.happycoders.study;
+
+import com.happycoders.account.AccountRepository;
+import com.happycoders.account.AccountService;
+import com.happycoders.counter.SiteCounterService;
+import com.happycoders.domain.Account;
+import com.happycoders.domain.SiteCounter;
+import com.happycoders.domain.Study;
+import com.happycoders.domain.Tag;
+import com.happycoders.tag.TagRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// controller 가 읽어 둔 aggregate 를 service 가 다시 조회하지 않는지 SQL 수로 확인한다.
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StudyServiceTest {
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    SiteCounterService siteCounterService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Account manager;
+
+    @BeforeEach
+    void beforeEach() {
+        manager = accountRepository.save(Account.builder().nickname("manager").email("manager@email.com").password("12345678").build());
+        Study study = new Study();
+        study.setPath("test-study");
+        study.setTitle("test study");
+        study.setShortDescription("short description");
+        study.setFullDescription("<p>full description</p>");
+        studyService.createNewStudy(study, manager);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @DisplayName("스터디 공개 - controller 가 읽은 스터디를 다시 조회하지 않고 UPDATE 한 번만 보낸다")
+    @Test
+    void publish_withoutReload() {
+        Study study = studyService.getStudyToUpdateStatus(manager, "test-study");
+        entityManager.clear(); // controller 는 service transaction 이 끝난 detached 스터디를 받는다.
+
+        statistics.clear();
+        studyService.publish(study);
+        entityManager.flush();
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(studyRepositoryFind().isPublished());
+    }
+
+    @DisplayName("관심 태그 추가 - 현재 계정을 다시 조회하지 않는다")
+    @Test
+    void addTag_withoutReload() {
+        Tag tag = tagRepository.save(Tag.builder().title("reattach-tag").build());
+        entityManager.flush();
+        entityManager.clear();
+        Account account = accountRepository.findById(manager.getId()).orElseThrow(); // CurrentAccount 로 받은 계정
+        entityManager.clear();
+
+        statistics.clear();
+        accountService.addTag(account, tag);
+        entityManager.flush();
+
+        // 태그 컬렉션 조회와 join table INSERT 만 나간다.
+        assertEquals(0, statistics.getEntityStatistics(Account.class.getName()).getLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        assertTrue(accountService.getTags(account).contains(tag));
+    }
+
+    @DisplayName("스터디 가입, 탈퇴 - members 컬렉션을 읽지 않고 한 행씩 쓰고, 두 번 가입해도 한 번만 센다")
+    @Test
+    void addAndRemoveMember() {
+        Account member = accountRepository.save(Account.builder().nickname("member").email("member@email.com").password("12345678").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        Study study = studyService.addMember("test-study", member);
+        studyService.addMember("test-study", member);
+        entityManager.flush();
+
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(1, study.getMemberCount());
+        assertEquals(1, studyRepositoryFind().getMembers().size());
+
+        studyService.removeMember("test-study", member);
+        studyService.removeMember("test-study", member);
+        entityManager.flush();
+
+        Study left = studyRepositoryFind();
+        assertEquals(0, left.getMemberCount());
+        assertTrue(left.getMembers().isEmpty());
+    }
+
+    @DisplayName("스터디 개설, 삭제 - 관리자 수와 전체 스터디 수를 같은 transaction 에서 바꾼다")
+    @Test
+    void createAndRemove_counters() {
+        long studies = siteCounterService.get(SiteCounter.STUDIES);
+        Study study = new Study();
+        study.setPath("counter-study");
+        study.setTitle("counter study");
+        study.setShortDescription("short description");
+        studyService.createNewStudy(study, manager);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(studies + 1, siteCounterService.get(SiteCounter.STUDIES));
+        assertEquals(1, studyService.getStudy("counter-study").getManagerCount());
+
+        entityManager.clear();
+        studyService.remove(studyService.getStudyToUpdateStatus(accountRepository.findById(manager.getId()).orElseThrow(), "counter-study"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(studies, siteCounterService.get(SiteCounter.STUDIES));
+    }
+
+    private Study studyRepositoryFind() {
+        entityManager.clear();
+        return studyService.getStudy("test-study");
+    }
+
+}
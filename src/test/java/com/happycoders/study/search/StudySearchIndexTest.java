@@ -0,0 +1,41 @@
+package com.happycoders.study.search;
+
+import com.happycoders.config.SearchProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StudySearchIndexTest {
+
+    @Autowired
+    StudySearchIndex studySearchIndex;
+
+    @Autowired
+    SearchProperties searchProperties;
+
+    @Test
+    @DisplayName("파일에서 읽은 인덱스는 시작이 끝나면 DB 기준으로 다시 맞춘다")
+    void rebuildOnStartup_dropsStaleDocuments() {
+        // DB 에 없는 스터디가 저장된 인덱스 파일
+        studySearchIndex.index(new StudyDocument(-100L, "stale-study", "유령 스터디", "삭제된 스터디", "", true, false));
+        studySearchIndex.save();
+        Path file = Paths.get(searchProperties.getDir(), "studies.idx");
+        assertTrue(Files.exists(file));
+        assertTrue(file.startsWith(Paths.get(System.getProperty("java.io.tmpdir"))));
+
+        studySearchIndex.load();
+        assertEquals(1, studySearchIndex.search("유령", 10).size());
+
+        studySearchIndex.rebuildOnStartup();
+        assertTrue(studySearchIndex.search("유령", 10).isEmpty());
+    }
+
+}
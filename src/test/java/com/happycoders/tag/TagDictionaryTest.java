@@ -0,0 +1,74 @@
+package com.happycoders.tag;
+
+import com.happycoders.domain.Tag;
+import com.happycoders.infra.referencedata.ReferenceDataImportedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 태그는 TagService 의 transaction 에서 commit 되므로 테스트 transaction 을 쓰지 않고, 만든 태그는 직접 지운다.
+@SpringBootTest
+class TagDictionaryTest {
+
+    @Autowired
+    TagDictionary tagDictionary;
+
+    @Autowired
+    TagService tagService;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void afterEach() {
+        tagRepository.deleteAll(tagRepository.findByTitleIn(List.of("committed-tag", "rolled-back-tag", "imported-tag")));
+        tagDictionary.reload();
+    }
+
+    @DisplayName("새 태그는 commit 된 뒤에 사전에 들어가고, 같은 태그를 다시 찾을 때는 DB 를 거치지 않는다")
+    @Test
+    void add_afterCommit() {
+        Tag created = tagService.findOrCreate("committed-tag");
+
+        assertEquals(tagRepository.findByTitle("committed-tag").getId(), created.getId());
+        assertEquals(created.getId(), tagDictionary.find("committed-tag").orElseThrow().getId());
+    }
+
+    @DisplayName("INSERT 가 실패해서 rollback 된 태그는 사전에 남지 않는다")
+    @Test
+    void add_rollback() {
+        String tooLong = "t".repeat(300); // title 컬럼 길이를 넘는다.
+
+        assertThrows(DataIntegrityViolationException.class, () -> tagService.findOrCreate(tooLong));
+
+        assertTrue(tagDictionary.find(tooLong).isEmpty());
+        assertNull(tagRepository.findByTitle(tooLong));
+    }
+
+    @DisplayName("DB 에 직접 넣은 태그는 기준 데이터 이벤트를 받으면 다시 읽는다")
+    @Test
+    void reload_onReferenceDataImported() {
+        int size = tagDictionary.size();
+        tagRepository.save(Tag.builder().title("imported-tag").build());
+        assertTrue(tagDictionary.find("imported-tag").isEmpty());
+
+        eventPublisher.publishEvent(new ReferenceDataImportedEvent("zones", 1));
+        assertTrue(tagDictionary.find("imported-tag").isEmpty());
+
+        eventPublisher.publishEvent(new ReferenceDataImportedEvent("tags", 1));
+        assertEquals(size + 1, tagDictionary.size());
+        assertTrue(tagDictionary.find("imported-tag").isPresent());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.happycoders.tag;
+
+import com.happycoders.domain.Tag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 동시에 commit 되는 상황을 만들어야 하므로 테스트 transaction 을 쓰지 않고, 만든 태그는 직접 지운다.
+@SpringBootTest
+class TagServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    TagService tagService;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    TagDictionary tagDictionary;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void afterEach() {
+        tagRepository.deleteAll(tagRepository.findByTitleIn(List.of("concurrent-tag", "outer-tag", "bulk-a", "bulk-b", "bulk-c")));
+        tagDictionary.reload();
+    }
+
+    @Test
+    @DisplayName("같은 태그를 동시에 만들어도 모두 같은 태그를 받는다")
+    void findOrCreate_concurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Tag>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return tagService.findOrCreate("concurrent-tag");
+            }));
+        }
+        start.countDown();
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (Future<Tag> future : futures) {
+            ids.add(future.get(10, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        assertEquals(1, ids.size());
+        assertEquals(ids.iterator().next(), tagRepository.findByTitle("concurrent-tag").getId());
+    }
+
+    @Test
+    @DisplayName("호출한 쪽의 transaction 안에서 같은 태그를 동시에 만들어도, 그 transaction 은 실패하지 않는다")
+    void findOrCreate_concurrentlyInTransaction() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transactionTemplate.execute(status -> {
+                    Tag tag = tagService.findOrCreate("outer-tag");
+                    // 태그를 만들다 실패했어도 바깥 transaction 은 계속 쓸 수 있고 commit 된다.
+                    assertNotNull(tagRepository.findByTitle("outer-tag"));
+                    return tag.getId();
+                });
+            }));
+        }
+        start.countDown();
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (Future<Long> future : futures) {
+            ids.add(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(Set.of(tagRepository.findByTitle("outer-tag").getId()), ids);
+    }
+
+    @Test
+    @DisplayName("이미 있는 태그는 사전에서 찾고, 스레드끼리 나눠 쓰지 않도록 매번 새 인스턴스를 돌려준다")
+    void findOrCreate_fromDictionary() {
+        Tag created = tagService.findOrCreate("bulk-a");
+        Tag found = tagService.findOrCreate("bulk-a");
+
+        assertNotSame(created, found);
+        assertEquals(created.getId(), found.getId());
+        assertEquals("bulk-a", found.getTitle());
+        assertNotSame(tagDictionary.find("bulk-a").orElseThrow(), tagDictionary.find("bulk-a").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("여러 태그를 한 번에 찾거나 만든다")
+    void findOrCreateAll() {
+        Tag existing = tagService.findOrCreate("bulk-a");
+
+        List<Tag> tags = tagService.findOrCreateAll(List.of("bulk-a", "bulk-b", "bulk-c"));
+
+        assertEquals(List.of("bulk-a", "bulk-b", "bulk-c"), tags.stream().map(Tag::getTitle).collect(Collectors.toList()));
+        assertEquals(existing.getId(), tags.get(0).getId());
+        assertNotNull(tagRepository.findByTitle("bulk-c"));
+        assertEquals(tags.get(2).getId(), tagDictionary.find("bulk-c").orElseThrow().getId());
+    }
+
+}